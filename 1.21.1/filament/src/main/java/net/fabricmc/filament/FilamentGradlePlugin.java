@@ -12,6 +12,7 @@ import org.gradle.api.tasks.Delete;
 import org.gradle.api.tasks.TaskContainer;
 import org.gradle.api.tasks.TaskProvider;
 
+import net.fabricmc.filament.download.DownloadService;
 import net.fabricmc.filament.task.CombineUnpickDefinitionsTask;
 import net.fabricmc.filament.task.DownloadTask;
 import net.fabricmc.filament.task.GeneratePackageInfoMappingsTask;
@@ -33,6 +34,15 @@ public final class FilamentGradlePlugin implements Plugin<Project> {
 
 		var metaProvider = extension.getMinecraftVersionMetadata();
 
+		var downloadService = project.getGradle().getSharedServices().registerIfAbsent(DownloadService.NAME, DownloadService.class, spec -> {
+			spec.getParameters().getCacheDirectory().set(extension.getArtifactCacheDirectory().dir("downloads"));
+			spec.getParameters().getMaxConcurrentTransfers().set(4);
+		});
+		tasks.withType(DownloadTask.class).configureEach(task -> {
+			task.getDownloadService().set(downloadService);
+			task.usesService(downloadService);
+		});
+
 		var minecraftClient = tasks.register("downloadMinecraftClientJar", DownloadTask.class, task -> {
 			Provider<MinecraftVersionMeta.Download> downloadProvider = metaProvider.map(meta -> meta.download("client"));
 			task.getUrl().set(downloadProvider.map(MinecraftVersionMeta.Download::url));
@@ -50,11 +60,14 @@ public final class FilamentGradlePlugin implements Plugin<Project> {
 		var extractBundledServer = tasks.register("extractBundledServer", ExtractBundledServerTask.class, task -> {
 			task.dependsOn(minecraftServer);
 			task.getInput().set(getOutput(minecraftServer));
+			task.getSha1().set(minecraftServer.flatMap(DownloadTask::getSha1));
 			task.getOutput().set(extension.getMinecraftFile("server.jar"));
 		});
 		tasks.register("mergeMinecraftJars", MergeMinecraftTask.class, task -> {
 			task.getClientJar().set(getOutput(minecraftClient));
 			task.getServerJar().set(getOutput(extractBundledServer));
+			task.getClientSha1().set(minecraftClient.flatMap(DownloadTask::getSha1));
+			task.getServerSha1().set(minecraftServer.flatMap(DownloadTask::getSha1));
 
 			task.getOutput().set(extension.getMinecraftFile("merged.jar"));
 		});
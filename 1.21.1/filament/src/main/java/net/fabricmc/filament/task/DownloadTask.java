@@ -1,5 +1,8 @@
 package net.fabricmc.filament.task;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.net.URISyntaxException;
 
 import javax.inject.Inject;
@@ -7,22 +10,24 @@ import javax.inject.Inject;
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.TaskAction;
 import org.gradle.workers.WorkAction;
 import org.gradle.workers.WorkParameters;
 import org.gradle.workers.WorkQueue;
 import org.gradle.workers.WorkerExecutor;
 
+import net.fabricmc.filament.download.DownloadService;
 import net.fabricmc.filament.task.base.FilamentTask;
 import net.fabricmc.filament.task.base.WithFileOutput;
-import net.fabricmc.loom.util.download.Download;
-import net.fabricmc.loom.util.download.DownloadException;
 
 public abstract class DownloadTask extends FilamentTask implements WithFileOutput {
 	@Input
 	public abstract Property<String> getUrl();
 	@Input
 	public abstract Property<String> getSha1();
+	@Internal
+	public abstract Property<DownloadService> getDownloadService();
 
 	@Inject
 	protected abstract WorkerExecutor getWorkerExecutor();
@@ -39,6 +44,7 @@ public abstract class DownloadTask extends FilamentTask implements WithFileOutpu
 			parameters.getUrl().set(getUrl());
 			parameters.getSha1().set(getSha1());
 			parameters.getOutput().set(getOutput());
+			parameters.getDownloadService().set(getDownloadService());
 		});
 	}
 
@@ -46,23 +52,21 @@ public abstract class DownloadTask extends FilamentTask implements WithFileOutpu
 		Property<String> getUrl();
 		Property<String> getSha1();
 		RegularFileProperty getOutput();
+		Property<DownloadService> getDownloadService();
 	}
 
 	public abstract static class DownloadAction implements WorkAction<DownloadParameters> {
 		@Override
 		public void execute() {
 			try {
-				var sha1 = getParameters().getSha1().get();
-				var download = Download.create(getParameters().getUrl().get());
-
-				if (!sha1.isEmpty()) {
-					download.sha1(sha1);
-				} else {
-					download.defaultCache();
-				}
-
-				download.downloadPath(getParameters().getOutput().get().getAsFile().toPath());
-			} catch (DownloadException | URISyntaxException e) {
+				getParameters().getDownloadService().get().getManager().download(
+						new URI(getParameters().getUrl().get()),
+						getParameters().getSha1().get(),
+						getParameters().getOutput().get().getAsFile().toPath()
+				);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Failed to download", e);
+			} catch (URISyntaxException e) {
 				throw new RuntimeException("Failed to download", e);
 			}
 		}
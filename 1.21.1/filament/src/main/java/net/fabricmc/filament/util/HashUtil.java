@@ -0,0 +1,41 @@
+package net.fabricmc.filament.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public final class HashUtil {
+	private HashUtil() {
+	}
+
+	public static MessageDigest sha1Digest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-1 is not available", e);
+		}
+	}
+
+	public static String sha1(byte[] data) {
+		return HexFormat.of().formatHex(sha1Digest().digest(data));
+	}
+
+	public static String sha1(Path file) throws IOException {
+		MessageDigest digest = sha1Digest();
+		byte[] buffer = new byte[8192];
+
+		try (InputStream is = Files.newInputStream(file)) {
+			int len;
+
+			while ((len = is.read(buffer)) > 0) {
+				digest.update(buffer, 0, len);
+			}
+		}
+
+		return HexFormat.of().formatHex(digest.digest());
+	}
+}
@@ -3,6 +3,7 @@ package net.fabricmc.filament.util;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import javax.inject.Inject;
@@ -38,6 +39,19 @@ public abstract class MinecraftVersionMetaHelper {
 		final Path versionManifestPath = getVersionManifestFile().getAsFile().get().toPath();
 		final Path versionMetadataPath = getVersionMetadataFile().getAsFile().get().toPath();
 
+		if (Files.exists(versionMetadataPath)) {
+			// Only written once verified against the manifest, so neither has to be fetched again
+			try {
+				final MinecraftVersionMeta cached = FilamentGradlePlugin.OBJECT_MAPPER.readValue(Files.readString(versionMetadataPath), MinecraftVersionMeta.class);
+
+				if (cached != null && getMinecraftVersion().get().equalsIgnoreCase(cached.id())) {
+					return cached;
+				}
+			} catch (IOException e) {
+				// Fetch it again below
+			}
+		}
+
 		final String versionManifest = Download.create(getMinecraftVersionManifestUrl().get())
 				.defaultCache()
 				.downloadString(versionManifestPath);
@@ -0,0 +1,232 @@
+package net.fabricmc.filament.download;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.fabricmc.filament.util.HashUtil;
+
+/**
+ * Downloads files into a content-addressed cache shared by every build using the same cache directory.
+ *
+ * <p>Files with a known SHA-1 are stored in the cache under it and copied from there once downloaded.
+ * Transfers are written to a partial file and hashed while streaming, an interrupted transfer of a file with
+ * a known SHA-1 is resumed with an HTTP range request by the next attempt or build. Files without one are
+ * always downloaded from the start, as a resumed transfer couldn't be verified. Any number of threads may download at once,
+ * at most the given number of transfers run concurrently.
+ */
+public final class DownloadManager {
+	private static final int ATTEMPTS = 3;
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final HttpClient client;
+	private final Path cacheDirectory;
+	private final Semaphore transfers;
+	private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+	public DownloadManager(Path cacheDirectory, int maxConcurrentTransfers) {
+		this(HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL).build(), cacheDirectory, maxConcurrentTransfers);
+	}
+
+	public DownloadManager(HttpClient client, Path cacheDirectory, int maxConcurrentTransfers) {
+		this.client = client;
+		this.cacheDirectory = cacheDirectory;
+		this.transfers = new Semaphore(maxConcurrentTransfers);
+	}
+
+	/**
+	 * Downloads a file to the output.
+	 *
+	 * @param sha1 the expected SHA-1 of the file, or null or empty to download it without verifying or caching it
+	 */
+	public void download(URI uri, @Nullable String sha1, Path output) throws IOException {
+		Files.createDirectories(output.toAbsolutePath().getParent());
+
+		if (sha1 == null || sha1.isEmpty()) {
+			Path partial = output.resolveSibling(output.getFileName() + ".part");
+
+			synchronized (locks.computeIfAbsent(partial.toAbsolutePath().toString(), k -> new Object())) {
+				// nothing verifies the result, so a leftover from a changed remote file can't be resumed
+				Files.deleteIfExists(partial);
+				fetch(uri, partial, null);
+				Files.move(partial, output, StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			return;
+		}
+
+		sha1 = sha1.toLowerCase();
+		Path cached = getCachePath(sha1);
+
+		synchronized (locks.computeIfAbsent(sha1, k -> new Object())) {
+			if (!Files.exists(cached)) {
+				Path partialDirectory = cacheDirectory.resolve("partial");
+				Files.createDirectories(partialDirectory);
+
+				// the cache is shared with other builds, which may be downloading the same file
+				try (FileChannel lockChannel = FileChannel.open(partialDirectory.resolve(sha1 + ".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+						FileLock lock = lockChannel.lock()) {
+					if (!Files.exists(cached)) {
+						Path partial = partialDirectory.resolve(sha1 + ".part");
+						fetch(uri, partial, sha1);
+						Files.createDirectories(cached.getParent());
+						Files.move(partial, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+					}
+				}
+			}
+		}
+
+		Files.copy(cached, output, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	public Path getCachePath(String sha1) {
+		return cacheDirectory.resolve(sha1.substring(0, 2)).resolve(sha1);
+	}
+
+	private void fetch(URI uri, Path partial, @Nullable String sha1) throws IOException {
+		Files.createDirectories(partial.toAbsolutePath().getParent());
+
+		try {
+			transfers.acquire();
+		} catch (InterruptedException e) {
+			throw interrupted(uri, e);
+		}
+
+		try {
+			IOException failure = null;
+
+			for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+				try {
+					String actual = transfer(uri, partial, sha1 != null);
+
+					if (sha1 == null || sha1.equals(actual)) {
+						return;
+					}
+
+					// corrupt download or partial file, start over
+					Files.deleteIfExists(partial);
+					throw new IOException("SHA-1 mismatch for " + uri + ": expected " + sha1 + ", got " + actual);
+				} catch (InterruptedIOException e) {
+					throw e;
+				} catch (IOException e) {
+					if (failure == null) {
+						failure = e;
+					} else {
+						failure.addSuppressed(e);
+					}
+				}
+			}
+
+			throw failure;
+		} finally {
+			transfers.release();
+		}
+	}
+
+	/**
+	 * Transfers the file into the partial file, resuming from what is already there if allowed.
+	 *
+	 * @return the SHA-1 of the whole partial file
+	 */
+	private String transfer(URI uri, Path partial, boolean resume) throws IOException {
+		MessageDigest digest = HashUtil.sha1Digest();
+
+		if (!resume) {
+			Files.deleteIfExists(partial);
+		}
+
+		long existing = Files.exists(partial) ? Files.size(partial) : 0;
+		HttpRequest.Builder request = HttpRequest.newBuilder(uri).GET();
+
+		if (existing > 0) {
+			request.header("Range", "bytes=" + existing + "-");
+		}
+
+		HttpResponse<InputStream> response;
+
+		try {
+			response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+		} catch (InterruptedException e) {
+			throw interrupted(uri, e);
+		}
+
+		try (InputStream body = response.body()) {
+			int status = response.statusCode();
+			boolean append;
+
+			if (status == 200) {
+				// the server ignored or doesn't support the range
+				append = false;
+			} else if (status == 206) {
+				String range = response.headers().firstValue("Content-Range").orElse("");
+
+				if (!range.startsWith("bytes " + existing + "-")) {
+					Files.deleteIfExists(partial);
+					throw new IOException("Unexpected range " + range + " for " + uri + " from byte " + existing);
+				}
+
+				append = true;
+			} else if (status == 416 && existing > 0) {
+				// the partial file is already complete
+				update(digest, partial);
+				return HexFormat.of().formatHex(digest.digest());
+			} else {
+				throw new IOException("Failed to download " + uri + ": HTTP " + status);
+			}
+
+			if (append) {
+				update(digest, partial);
+			}
+
+			try (OutputStream out = Files.newOutputStream(partial, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING)) {
+				byte[] buffer = new byte[BUFFER_SIZE];
+				int len;
+
+				while ((len = body.read(buffer)) >= 0) {
+					digest.update(buffer, 0, len);
+					out.write(buffer, 0, len);
+				}
+			}
+		}
+
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private static void update(MessageDigest digest, Path file) throws IOException {
+		byte[] buffer = new byte[BUFFER_SIZE];
+
+		try (InputStream is = Files.newInputStream(file)) {
+			int len;
+
+			while ((len = is.read(buffer)) >= 0) {
+				digest.update(buffer, 0, len);
+			}
+		}
+	}
+
+	private static InterruptedIOException interrupted(URI uri, InterruptedException e) {
+		Thread.currentThread().interrupt();
+		InterruptedIOException ret = new InterruptedIOException("Interrupted while downloading " + uri);
+		ret.initCause(e);
+		return ret;
+	}
+}
@@ -1,27 +1,72 @@
 package net.fabricmc.filament.task.minecraft;
 
 import java.io.IOException;
+import java.nio.file.Path;
 
+import javax.inject.Inject;
+
+import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.TaskAction;
 
 import net.fabricmc.filament.task.base.FileOutputTask;
+import net.fabricmc.filament.util.ArtifactCache;
 import net.fabricmc.loom.configuration.providers.minecraft.MinecraftJarMerger;
 
 public abstract class MergeMinecraftTask extends FileOutputTask {
+	/**
+	 * Part of the artifact cache key, to be bumped whenever the merged output changes for the same inputs.
+	 */
+	private static final int CACHE_VERSION = 1;
+
 	@InputFile
 	public abstract RegularFileProperty getClientJar();
 
 	@InputFile
 	public abstract RegularFileProperty getServerJar();
 
+	/**
+	 * The SHA-1s of the client jar and the server bundle as published by Mojang. If both are set, the merged
+	 * jar is stored in the artifact cache under them.
+	 */
+	@Input
+	@Optional
+	public abstract Property<String> getClientSha1();
+
+	@Input
+	@Optional
+	public abstract Property<String> getServerSha1();
+
+	@Internal
+	public abstract DirectoryProperty getArtifactCacheDirectory();
+
+	@Inject
+	public MergeMinecraftTask() {
+		getArtifactCacheDirectory().convention(getExtension().getArtifactCacheDirectory());
+	}
+
 	@TaskAction
 	public void run() throws IOException {
+		if (getClientSha1().getOrElse("").isEmpty() || getServerSha1().getOrElse("").isEmpty()) {
+			merge(getOutputPath());
+			return;
+		}
+
+		// Loom's merger, kept apart from the jars merged by newer checkouts
+		String key = "merged/loom/v" + CACHE_VERSION + "/" + getClientSha1().get() + "-" + getServerSha1().get() + ".jar";
+		ArtifactCache.copyOrProduce(getArtifactCacheDirectory().get().getAsFile().toPath(), key, getOutputPath(), this::merge);
+	}
+
+	private void merge(Path output) throws IOException {
 		try (MinecraftJarMerger jarMerger = new MinecraftJarMerger(
 				getClientJar().getAsFile().get(),
 				getServerJar().getAsFile().get(),
-				getOutput().getAsFile().get())) {
+				output.toFile())) {
 			jarMerger.merge();
 		}
 	}
@@ -12,14 +12,19 @@ import org.gradle.api.tasks.Delete;
 import org.gradle.api.tasks.TaskContainer;
 import org.gradle.api.tasks.TaskProvider;
 
+import net.fabricmc.filament.download.DownloadService;
+import net.fabricmc.filament.remap.RemapperService;
 import net.fabricmc.filament.task.CombineUnpickDefinitionsTask;
 import net.fabricmc.filament.task.DownloadTask;
 import net.fabricmc.filament.task.GeneratePackageInfoMappingsTask;
 import net.fabricmc.filament.task.JavadocLintTask;
+import net.fabricmc.filament.task.MapJarTask;
 import net.fabricmc.filament.task.RemapUnpickDefinitionsTask;
+import net.fabricmc.filament.task.UnpickJarTask;
 import net.fabricmc.filament.task.base.WithFileOutput;
 import net.fabricmc.filament.task.minecraft.ExtractBundledServerTask;
 import net.fabricmc.filament.task.minecraft.MergeMinecraftTask;
+import net.fabricmc.filament.unpick.UnpickService;
 import net.fabricmc.loom.configuration.providers.minecraft.MinecraftVersionMeta;
 import net.fabricmc.loom.util.gradle.GradleUtils;
 
@@ -33,6 +38,15 @@ public final class FilamentGradlePlugin implements Plugin<Project> {
 
 		var metaProvider = extension.getMinecraftVersionMetadata();
 
+		var downloadService = project.getGradle().getSharedServices().registerIfAbsent(DownloadService.NAME, DownloadService.class, spec -> {
+			spec.getParameters().getCacheDirectory().set(extension.getArtifactCacheDirectory().dir("downloads"));
+			spec.getParameters().getMaxConcurrentTransfers().set(4);
+		});
+		tasks.withType(DownloadTask.class).configureEach(task -> {
+			task.getDownloadService().set(downloadService);
+			task.usesService(downloadService);
+		});
+
 		var minecraftClient = tasks.register("downloadMinecraftClientJar", DownloadTask.class, task -> {
 			Provider<MinecraftVersionMeta.Download> downloadProvider = metaProvider.map(meta -> meta.download("client"));
 			task.getUrl().set(downloadProvider.map(MinecraftVersionMeta.Download::url));
@@ -50,11 +64,14 @@ public final class FilamentGradlePlugin implements Plugin<Project> {
 		var extractBundledServer = tasks.register("extractBundledServer", ExtractBundledServerTask.class, task -> {
 			task.dependsOn(minecraftServer);
 			task.getInput().set(getOutput(minecraftServer));
+			task.getSha1().set(minecraftServer.flatMap(DownloadTask::getSha1));
 			task.getOutput().set(extension.getMinecraftFile("server.jar"));
 		});
 		tasks.register("mergeMinecraftJars", MergeMinecraftTask.class, task -> {
 			task.getClientJar().set(getOutput(minecraftClient));
 			task.getServerJar().set(getOutput(extractBundledServer));
+			task.getClientSha1().set(minecraftClient.flatMap(DownloadTask::getSha1));
+			task.getServerSha1().set(minecraftServer.flatMap(DownloadTask::getSha1));
 
 			task.getOutput().set(extension.getMinecraftFile("merged.jar"));
 		});
@@ -69,6 +86,20 @@ public final class FilamentGradlePlugin implements Plugin<Project> {
 			task.getTargetNamespace().set("intermediary");
 		});
 
+		var unpickService = project.getGradle().getSharedServices().registerIfAbsent(UnpickService.NAME, UnpickService.class, spec -> { });
+		tasks.withType(UnpickJarTask.class).configureEach(task -> {
+			task.getUnpickService().set(unpickService);
+			task.usesService(unpickService);
+		});
+
+		var remapperService = project.getGradle().getSharedServices().registerIfAbsent(RemapperService.NAME, RemapperService.class, spec -> {
+			spec.getParameters().getCacheDirectory().set(extension.getCacheDirectory().dir("remap/classpath"));
+		});
+		tasks.withType(MapJarTask.class).configureEach(task -> {
+			task.getRemapperService().set(remapperService);
+			task.usesService(remapperService);
+		});
+
 		var cleanFilament = tasks.register("cleanFilament", Delete.class, task -> task.delete(extension.getCacheDirectory()));
 		tasks.named("clean", task -> task.dependsOn(cleanFilament));
 
@@ -0,0 +1,29 @@
+package net.fabricmc.filament.download;
+
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+/**
+ * Shares a {@link DownloadManager} between the download tasks of a build.
+ */
+public abstract class DownloadService implements BuildService<DownloadService.Parameters> {
+	public static final String NAME = "filamentDownloads";
+
+	private final DownloadManager manager;
+
+	public interface Parameters extends BuildServiceParameters {
+		DirectoryProperty getCacheDirectory();
+
+		Property<Integer> getMaxConcurrentTransfers();
+	}
+
+	public DownloadService() {
+		manager = new DownloadManager(getParameters().getCacheDirectory().get().getAsFile().toPath(), getParameters().getMaxConcurrentTransfers().get());
+	}
+
+	public DownloadManager getManager() {
+		return manager;
+	}
+}
@@ -0,0 +1,20 @@
+package net.fabricmc.filament.javadoclint;
+
+import java.util.function.Consumer;
+
+import cuchaz.enigma.translation.representation.entry.Entry;
+
+/**
+ * A check run by {@link JavadocLinter} on every documented mapping entry.
+ *
+ * <p>Rules are called concurrently for different entries and must not keep mutable state.
+ * Additional rules can be registered as {@link java.util.ServiceLoader services}.
+ */
+public interface JavadocLintRule {
+	/**
+	 * @param entry the obfuscated entry the javadoc belongs to
+	 * @param javadoc the javadoc, never empty
+	 * @param errors receives the error messages for the entry
+	 */
+	void check(Entry<?> entry, String javadoc, Consumer<String> errors);
+}
@@ -0,0 +1,89 @@
+package net.fabricmc.filament.javadoclint;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import cuchaz.enigma.translation.mapping.EntryMapping;
+import cuchaz.enigma.translation.mapping.tree.EntryTree;
+import cuchaz.enigma.translation.representation.entry.Entry;
+import cuchaz.enigma.translation.representation.entry.MethodEntry;
+
+/**
+ * Runs {@link JavadocLintRule}s over all documented entries of a mapping tree.
+ *
+ * <p>Entries are checked in parallel, each worker collecting into its own list. The lists are merged
+ * once all entries are checked and sorted by entry name, so the result doesn't depend on scheduling.
+ */
+public final class JavadocLinter {
+	private static final Comparator<LintError> ORDER = Comparator.comparing(LintError::name).thenComparing(LintError::message);
+
+	private final List<JavadocLintRule> rules;
+
+	public JavadocLinter(List<JavadocLintRule> rules) {
+		this.rules = List.copyOf(rules);
+	}
+
+	/**
+	 * @return the built-in rules followed by the rules registered as services
+	 */
+	public static List<JavadocLintRule> defaultRules() {
+		List<JavadocLintRule> rules = new ArrayList<>();
+		rules.add(new ParameterJavadocRule());
+		rules.add(new MethodParameterDocsRule());
+		ServiceLoader.load(JavadocLintRule.class, JavadocLintRule.class.getClassLoader()).forEach(rules::add);
+		return rules;
+	}
+
+	/**
+	 * @return the errors as {@code name: message}, sorted
+	 */
+	public List<String> lint(EntryTree<EntryMapping> mappings) {
+		List<LintError> errors = mappings.getAllEntries()
+				.parallel()
+				.collect(ArrayList::new, (List<LintError> list, Entry<?> entry) -> check(mappings, entry, list), List::addAll);
+		errors.sort(ORDER);
+
+		return errors.stream().map(error -> error.name() + ": " + error.message()).toList();
+	}
+
+	private void check(EntryTree<EntryMapping> mappings, Entry<?> entry, List<LintError> errors) {
+		String javadoc = mappings.get(entry).javadoc();
+
+		if (javadoc == null || javadoc.isEmpty()) {
+			return;
+		}
+
+		List<String> messages = new ArrayList<>();
+
+		for (JavadocLintRule rule : rules) {
+			rule.check(entry, javadoc, messages::add);
+		}
+
+		if (!messages.isEmpty()) {
+			String name = getFullName(mappings, entry);
+
+			for (String message : messages) {
+				errors.add(new LintError(name, message));
+			}
+		}
+	}
+
+	private static String getFullName(EntryTree<EntryMapping> mappings, Entry<?> entry) {
+		String name = mappings.get(entry).targetName();
+
+		if (entry instanceof MethodEntry method) {
+			name += method.getDesc().toString();
+		}
+
+		if (entry.getParent() != null) {
+			name = getFullName(mappings, entry.getParent()) + '.' + name;
+		}
+
+		return name;
+	}
+
+	private record LintError(String name, String message) {
+	}
+}
@@ -0,0 +1,25 @@
+package net.fabricmc.filament.javadoclint;
+
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import cuchaz.enigma.translation.representation.entry.Entry;
+import cuchaz.enigma.translation.representation.entry.MethodEntry;
+
+/**
+ * Parameters are documented on the parameter mappings, not with {@code @param} tags in the method javadoc.
+ */
+final class MethodParameterDocsRule implements JavadocLintRule {
+	private static final Pattern PARAM_DOC_LINE = Pattern.compile("^@param\\s+[^<].*$");
+
+	@Override
+	public void check(Entry<?> entry, String javadoc, Consumer<String> errors) {
+		if (entry instanceof MethodEntry && javadoc.lines().anyMatch(MethodParameterDocsRule::isRegularMethodParameter)) {
+			errors.accept("method javadoc contains parameter docs, which should be on the parameter itself");
+		}
+	}
+
+	private static boolean isRegularMethodParameter(String line) {
+		return PARAM_DOC_LINE.matcher(line).matches();
+	}
+}
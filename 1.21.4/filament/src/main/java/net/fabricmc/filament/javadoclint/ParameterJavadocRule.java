@@ -0,0 +1,36 @@
+package net.fabricmc.filament.javadoclint;
+
+import java.util.function.Consumer;
+
+import cuchaz.enigma.translation.representation.entry.Entry;
+import cuchaz.enigma.translation.representation.entry.LocalVariableEntry;
+
+/**
+ * Parameter docs are sentence fragments, so they neither end with a period nor start with an uppercase word.
+ */
+final class ParameterJavadocRule implements JavadocLintRule {
+	@Override
+	public void check(Entry<?> entry, String javadoc, Consumer<String> errors) {
+		if (!(entry instanceof LocalVariableEntry variable) || !variable.isArgument()) {
+			return;
+		}
+
+		if (javadoc.endsWith(".")) {
+			errors.accept("parameter javadoc ends with '.'");
+		}
+
+		if (Character.isUpperCase(javadoc.charAt(0))) {
+			String word = getFirstWord(javadoc);
+
+			// ignore single-letter "words" (like X or Z)
+			if (word.length() > 1) {
+				errors.accept("parameter javadoc starts with uppercase word '" + word + "'");
+			}
+		}
+	}
+
+	private static String getFirstWord(String str) {
+		int i = str.indexOf(' ');
+		return i != -1 ? str.substring(0, i) : str;
+	}
+}
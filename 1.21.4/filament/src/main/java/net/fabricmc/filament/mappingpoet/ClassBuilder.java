@@ -142,7 +142,7 @@ public class ClassBuilder {
 
 	private TypeSpec.Builder setupBuilder() {
 		TypeSpec.Builder builder;
-		ClassName name = parseInternalName(classNode.name); // no type anno here
+		ClassName name = environment.typeNames().parseInternalName(classNode.name); // no type anno here
 
 		if (Modifier.isInterface(classNode.access)) {
 			if (classNode.interfaces.size() == 1 && classNode.interfaces.get(0).equals("java/lang/annotation/Annotation")) {
@@ -195,7 +195,7 @@ public class ClassBuilder {
 		if (classNode.interfaces.isEmpty()) return;
 
 		for (String iFace : classNode.interfaces) {
-			builder.addSuperinterface(parseInternalName(iFace));
+			builder.addSuperinterface(environment.typeNames().parseInternalName(iFace));
 		}
 	}
 
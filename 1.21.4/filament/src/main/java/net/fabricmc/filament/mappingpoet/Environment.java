@@ -33,7 +33,9 @@ public record Environment(
 		Set<String> sealedClasses,
 		// declaring classes keep track of namable inner classes
 		// and local/anon classes in whole codebase
-		Map<String, NestedClassInfo> declaringClasses
+		Map<String, NestedClassInfo> declaringClasses,
+		// shared by all builders of the run
+		TypeNameCache typeNames
 ) implements ClassStaticContext {
 	public record NestedClassInfo(String declaringClass, boolean instanceInner, String simpleName) {
 		// two strings are nullable
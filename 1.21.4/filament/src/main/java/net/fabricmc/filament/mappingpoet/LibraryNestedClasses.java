@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2020 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.filament.mappingpoet;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+
+import org.objectweb.asm.ClassReader;
+
+import net.fabricmc.filament.mappingpoet.Environment.NestedClassInfo;
+import net.fabricmc.filament.util.HashUtil;
+
+/**
+ * Collects the declared nested classes of library jars from their InnerClasses attributes.
+ *
+ * <p>Only the attribute itself is parsed, fields and methods are skipped over without being read.
+ * The table of each jar is stored in the cache directory under the jar's SHA-1, so unchanged
+ * libraries are not scanned again.
+ */
+final class LibraryNestedClasses {
+	private static final String INNER_CLASSES = "InnerClasses";
+
+	private LibraryNestedClasses() {
+	}
+
+	/**
+	 * @param cacheDirectory where scanned tables are persisted, or null to always scan
+	 * @return nested class info by internal name, later libraries taking precedence
+	 */
+	static Map<String, NestedClassInfo> scan(List<Path> libraries, Path cacheDirectory) {
+		List<Map<String, NestedClassInfo>> tables = libraries.parallelStream()
+				.map(library -> read(library, cacheDirectory))
+				.toList();
+
+		Map<String, NestedClassInfo> ret = new HashMap<>();
+
+		for (Map<String, NestedClassInfo> table : tables) {
+			ret.putAll(table);
+		}
+
+		return ret;
+	}
+
+	private static Map<String, NestedClassInfo> read(Path library, Path cacheDirectory) {
+		try {
+			if (cacheDirectory == null) {
+				return scanJar(library);
+			}
+
+			Path cacheFile = cacheDirectory.resolve(HashUtil.sha1(library) + ".txt");
+
+			if (Files.exists(cacheFile)) {
+				return readTable(cacheFile);
+			}
+
+			Map<String, NestedClassInfo> table = scanJar(library);
+			writeTable(cacheFile, table);
+			return table;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to scan nested classes of " + library, e);
+		}
+	}
+
+	private static Map<String, NestedClassInfo> scanJar(Path library) throws IOException {
+		try (JarFile jarFile = new JarFile(library.toFile())) {
+			return jarFile.stream()
+					.parallel()
+					.filter(entry -> !entry.isDirectory() && entry.getName().endsWith(".class"))
+					.flatMap(entry -> {
+						try (InputStream is = jarFile.getInputStream(entry)) {
+							return readInnerClasses(new ClassReader(is)).entrySet().stream();
+						} catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					})
+					// the outer and the nested class both list the same entry
+					.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, TreeMap::new));
+		}
+	}
+
+	/**
+	 * Walks the class file structure up to the class attributes and reads the InnerClasses
+	 * entries that have an outer class, i.e. members rather than local or anonymous classes.
+	 */
+	private static Map<String, NestedClassInfo> readInnerClasses(ClassReader reader) {
+		char[] buf = new char[reader.getMaxStringLength()];
+		int offset = reader.header + 6;
+		offset += 2 + 2 * reader.readUnsignedShort(offset); // interfaces
+		offset = skipMembers(reader, offset); // fields
+		offset = skipMembers(reader, offset); // methods
+
+		Map<String, NestedClassInfo> ret = new HashMap<>();
+		int attributeCount = reader.readUnsignedShort(offset);
+		offset += 2;
+
+		for (int i = 0; i < attributeCount; i++) {
+			String attributeName = reader.readUTF8(offset, buf);
+			int length = reader.readInt(offset + 2);
+			offset += 6;
+
+			if (INNER_CLASSES.equals(attributeName)) {
+				int count = reader.readUnsignedShort(offset);
+				int entry = offset + 2;
+
+				for (int j = 0; j < count; j++, entry += 8) {
+					String name = reader.readClass(entry, buf);
+					String outerName = reader.readClass(entry + 2, buf);
+
+					if (outerName != null) {
+						// null -> declared in method/initializer
+						String simpleName = reader.readUTF8(entry + 4, buf);
+						int access = reader.readUnsignedShort(entry + 6);
+						ret.put(name, new NestedClassInfo(outerName, !Modifier.isStatic(access), simpleName));
+					}
+				}
+			}
+
+			offset += length;
+		}
+
+		return ret;
+	}
+
+	private static int skipMembers(ClassReader reader, int offset) {
+		int memberCount = reader.readUnsignedShort(offset);
+		offset += 2;
+
+		for (int i = 0; i < memberCount; i++) {
+			int attributeCount = reader.readUnsignedShort(offset + 6);
+			offset += 8;
+
+			for (int j = 0; j < attributeCount; j++) {
+				offset += 6 + reader.readInt(offset + 2);
+			}
+		}
+
+		return offset;
+	}
+
+	private static Map<String, NestedClassInfo> readTable(Path cacheFile) throws IOException {
+		Map<String, NestedClassInfo> ret = new HashMap<>();
+
+		for (String line : Files.readAllLines(cacheFile, StandardCharsets.UTF_8)) {
+			String[] parts = line.split("\t", -1);
+
+			if (parts.length != 4) {
+				throw new IOException("Corrupt nested class cache " + cacheFile + ": " + line);
+			}
+
+			ret.put(parts[0], new NestedClassInfo(parts[1], parts[2].equals("1"), parts[3].isEmpty() ? null : parts[3]));
+		}
+
+		return ret;
+	}
+
+	private static void writeTable(Path cacheFile, Map<String, NestedClassInfo> table) throws IOException {
+		Files.createDirectories(cacheFile.getParent());
+		Path tmp = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+
+		try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+			for (Map.Entry<String, NestedClassInfo> entry : table.entrySet()) {
+				NestedClassInfo info = entry.getValue();
+				writer.write(entry.getKey());
+				writer.write('\t');
+				writer.write(info.declaringClass());
+				writer.write('\t');
+				writer.write(info.instanceInner() ? "1" : "0");
+				writer.write('\t');
+				writer.write(info.simpleName() == null ? "" : info.simpleName());
+				writer.write('\n');
+			}
+		}
+
+		// other builds may be scanning the same library, whichever finishes last wins
+		Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+}
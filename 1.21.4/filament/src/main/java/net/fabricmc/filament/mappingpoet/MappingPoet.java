@@ -24,35 +24,55 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.Enumeration;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.stream.Collectors;
 
 import com.squareup.javapoet.JavaFile;
 import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.ClassVisitor;
-import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.InnerClassNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import net.fabricmc.filament.mappingpoet.Environment.ClassNamePointer;
 import net.fabricmc.filament.mappingpoet.Environment.NestedClassInfo;
 
 public class MappingPoet {
+	private static final Logger LOGGER = LoggerFactory.getLogger(MappingPoet.class);
+
 	public static void generate(Path mappings, Path inputJar, Path outputDirectory, List<Path> libraries) {
+		generate(mappings, inputJar, outputDirectory, libraries, null);
+	}
+
+	/**
+	 * @param cacheDirectory where nested class tables of the libraries are kept between runs, or null to not cache them
+	 */
+	public static void generate(Path mappings, Path inputJar, Path outputDirectory, List<Path> libraries, Path cacheDirectory) {
 		final MappingsStore mapping = new MappingsStore(mappings);
-		Map<String, ClassBuilder> classes = new HashMap<>();
-		forEachClass(inputJar, (classNode, environment) -> writeClass(mapping, classNode, classes, environment), libraries);
+		Map<String, List<ClassNode>> trees = new TreeMap<>();
+		Environment environment = readClasses(inputJar, trees, libraries, cacheDirectory);
+
+		// Each top-level class and its nested classes form an independent tree. Within a tree the classes
+		// are built in name order, so parents always exist (and are configured) before their inner classes.
+		trees.values().parallelStream().forEach(tree -> {
+			Map<String, ClassBuilder> classes = new HashMap<>();
+
+			for (ClassNode node : tree) {
+				writeClass(mapping, node, classes, environment);
+			}
+
+			ClassBuilder classBuilder = classes.get(tree.get(0).name);
+
+			if (classBuilder == null) {
+				return;
+			}
 
-		for (ClassBuilder classBuilder : classes.values()) {
 			String name = classBuilder.getClassName();
-			if (name.contains("$")) continue;
 
 			try {
 				int packageEnd = classBuilder.getClassName().lastIndexOf("/");
@@ -63,65 +83,62 @@ public class MappingPoet {
 			} catch (Throwable t) {
 				throw new RuntimeException("Failed to process class "+name, t);
 			}
-		}
+		});
+
+		LOGGER.info("Type name cache: {}", environment.typeNames().getStats());
 	}
 
-	private static void forEachClass(Path jar, ClassNodeConsumer classNodeConsumer, List<Path> libraries) {
-		List<ClassNode> classes = new ArrayList<>();
-		Map<String, Collection<String>> supers = new HashMap<>();
-		Set<String> sealedClasses = new HashSet<>(); // their subclsses/impls need non-sealed modifier
+	private static Environment readClasses(Path jar, Map<String, List<ClassNode>> trees, List<Path> libraries, Path cacheDirectory) {
+		Map<String, Collection<String>> supers = new ConcurrentHashMap<>();
+		Set<String> sealedClasses = ConcurrentHashMap.newKeySet(); // their subclsses/impls need non-sealed modifier
 
-		Map<String, Environment.NestedClassInfo> nestedClasses = new ConcurrentHashMap<>();
-		Map<String, ClassNamePointer> classNames = new ConcurrentHashMap<>();
+		// classes of the jar itself are added on top of the library ones
+		Map<String, Environment.NestedClassInfo> nestedClasses = new ConcurrentHashMap<>(LibraryNestedClasses.scan(libraries, cacheDirectory));
 
-		if (libraries.isEmpty()) {
-			scanNestedClasses(classNames, nestedClasses, libraries);
-		}
+		List<ClassNode> classes;
 
 		try (JarFile jarFile = new JarFile(jar.toFile())) {
-			Enumeration<JarEntry> entryEnumerator = jarFile.entries();
+			classes = jarFile.stream()
+					.parallel()
+					.filter(entry -> !entry.isDirectory() && entry.getName().endsWith(".class"))
+					.map(entry -> {
+						try (InputStream is = jarFile.getInputStream(entry)) {
+							ClassReader reader = new ClassReader(is);
+							ClassNode classNode = new ClassNode();
+							reader.accept(classNode, ClassReader.SKIP_CODE);
+							List<String> superNames = new ArrayList<>();
 
-			while (entryEnumerator.hasMoreElements()) {
-				JarEntry entry = entryEnumerator.nextElement();
+							if (classNode.superName != null && !classNode.superName.equals("java/lang/Object")) {
+								superNames.add(classNode.superName);
+							}
 
-				if (entry.isDirectory() || !entry.getName().endsWith(".class")) {
-					continue;
-				}
+							if (classNode.interfaces != null) {
+								superNames.addAll(classNode.interfaces);
+							}
 
-				try (InputStream is = jarFile.getInputStream(entry)) {
-					ClassReader reader = new ClassReader(is);
-					ClassNode classNode = new ClassNode();
-					reader.accept(classNode, ClassReader.SKIP_CODE);
-					List<String> superNames = new ArrayList<>();
-
-					if (classNode.superName != null && !classNode.superName.equals("java/lang/Object")) {
-						superNames.add(classNode.superName);
-					}
-
-					if (classNode.interfaces != null) {
-						superNames.addAll(classNode.interfaces);
-					}
-
-					if (!superNames.isEmpty()) {
-						supers.put(classNode.name, superNames);
-					}
-
-					if (classNode.innerClasses != null) {
-						for (InnerClassNode e : classNode.innerClasses) {
-							if (e.outerName != null) {
-								// null -> declared in method/initializer
-								nestedClasses.put(e.name, new NestedClassInfo(e.outerName, !Modifier.isStatic(e.access), e.innerName));
+							if (!superNames.isEmpty()) {
+								supers.put(classNode.name, superNames);
 							}
-						}
-					}
 
-					if (classNode.permittedSubclasses != null) {
-						sealedClasses.add(classNode.name);
-					}
+							if (classNode.innerClasses != null) {
+								for (InnerClassNode e : classNode.innerClasses) {
+									if (e.outerName != null) {
+										// null -> declared in method/initializer
+										nestedClasses.put(e.name, new NestedClassInfo(e.outerName, !Modifier.isStatic(e.access), e.innerName));
+									}
+								}
+							}
 
-					classes.add(classNode);
-				}
-			}
+							if (classNode.permittedSubclasses != null) {
+								sealedClasses.add(classNode.name);
+							}
+
+							return classNode;
+						} catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					})
+					.collect(Collectors.toList());
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}
@@ -130,42 +147,12 @@ public class MappingPoet {
 		classes.sort(Comparator.comparing(o -> o.name));
 
 		for (ClassNode node : classes) {
-			classNodeConsumer.accept(node, new Environment(supers, sealedClasses, nestedClasses));
+			int nestEnd = node.name.indexOf('$');
+			String topLevel = nestEnd < 0 ? node.name : node.name.substring(0, nestEnd);
+			trees.computeIfAbsent(topLevel, k -> new ArrayList<>()).add(node);
 		}
-	}
 
-	private static void scanNestedClasses(Map<String, ClassNamePointer> classNames, Map<String, Environment.NestedClassInfo> instanceInnerClasses, List<Path> libraries) {
-		try {
-			for (Path library : libraries) {
-				try (JarFile jarFile = new JarFile(library.toFile())) {
-					Enumeration<JarEntry> entryEnumerator = jarFile.entries();
-
-					while (entryEnumerator.hasMoreElements()) {
-						JarEntry entry = entryEnumerator.nextElement();
-
-						if (entry.isDirectory() || !entry.getName().endsWith(".class")) {
-							continue;
-						}
-
-						try (InputStream is = jarFile.getInputStream(entry)) {
-							ClassReader reader = new ClassReader(is);
-							reader.accept(new ClassVisitor(Opcodes.ASM9) {
-								@Override
-								public void visitInnerClass(String name, String outerName, String simpleName, int access) {
-									instanceInnerClasses.put(name, new NestedClassInfo(outerName, !Modifier.isStatic(access), simpleName));
-
-									if (outerName != null) {
-										classNames.put(name, new ClassNamePointer(simpleName, outerName));
-									}
-								}
-							}, ClassReader.SKIP_CODE);
-						}
-					}
-				}
-			}
-		} catch (IOException ex) {
-			throw new UncheckedIOException(ex);
-		}
+		return new Environment(supers, sealedClasses, nestedClasses, new TypeNameCache());
 	}
 
 	private static boolean isInstanceInnerOnClasspath(String internalName) {
@@ -217,9 +204,4 @@ public class MappingPoet {
 		classBuilder.addMembers();
 		existingClasses.put(name, classBuilder);
 	}
-
-	@FunctionalInterface
-	private interface ClassNodeConsumer {
-		void accept(ClassNode node, Environment environment);
-	}
 }
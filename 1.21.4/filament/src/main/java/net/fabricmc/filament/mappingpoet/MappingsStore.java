@@ -23,6 +23,7 @@ import java.nio.file.Path;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.fabricmc.mappingio.MappingReader;
 import net.fabricmc.mappingio.adapter.MappingSourceNsSwitch;
@@ -30,6 +31,7 @@ import net.fabricmc.mappingio.format.MappingFormat;
 import net.fabricmc.mappingio.tree.MappingTreeView;
 import net.fabricmc.mappingio.tree.MappingTreeView.ClassMappingView;
 import net.fabricmc.mappingio.tree.MappingTreeView.ElementMappingView;
+import net.fabricmc.mappingio.tree.MappingTreeView.MethodArgMappingView;
 import net.fabricmc.mappingio.tree.MappingTreeView.MethodMappingView;
 import net.fabricmc.mappingio.tree.MemoryMappingTree;
 
@@ -37,6 +39,7 @@ import net.fabricmc.mappingio.tree.MemoryMappingTree;
 public class MappingsStore {
 	private final MappingTreeView tree;
 	private final int maxNamespace;
+	private final Map<MethodKey, ResolvedMethod> resolvedMethods = new ConcurrentHashMap<>();
 
 	public MappingsStore(Path tinyFile) {
 		this.tree = readMappings(tinyFile);
@@ -103,35 +106,24 @@ public class MappingsStore {
 	}
 
 	public Map.Entry<String, String> getParamNameAndDoc(Environment environment, String owner, String name, String desc, int index) {
-		var found = searchMethod(environment, owner, name, desc);
+		ResolvedMethod found = searchMethod(environment, owner, name, desc);
 
-		if (found != null) {
-			var methodDef = found.getValue();
-
-			if (methodDef.getArgs().isEmpty()) {
-				return null;
-			}
-
-			return methodDef.getArgs().stream()
-					.filter(param -> param.getLvIndex() == index)
-					// Map.entry() is null-hostile
-					.map(param -> new SimpleImmutableEntry<>(param.getSrcName(), param.getComment()))
-					.findFirst()
-					.orElse(null);
+		if (found == null || index < 0 || index >= found.params().length) {
+			return null;
 		}
 
-		return null;
+		return found.params()[index];
 	}
 
 	public void addMethodDoc(DocAdder adder, Environment environment, String owner, String name, String desc) {
-		var found = searchMethod(environment, owner, name, desc);
+		ResolvedMethod found = searchMethod(environment, owner, name, desc);
 
 		if (found == null) {
 			return;
 		}
 
-		var methodDef = found.getValue();
-		var ownerDef = found.getKey();
+		var methodDef = found.method();
+		var ownerDef = found.owner();
 
 		if (!ownerDef.equals(methodDef.getOwner())) {
 			adder.addJavadoc("{@inheritDoc}");
@@ -148,7 +140,26 @@ public class MappingsStore {
 		}
 	}
 
-	private Map.Entry<ClassMappingView, MethodMappingView> searchMethod(Environment environment, String owner, String name, String desc) {
+	/**
+	 * Resolves a method against the class and its super types. Results are memoized per
+	 * (owner, name, desc), and super types are resolved (and cached) before the class itself,
+	 * so each level of a deep hierarchy is only walked once per method.
+	 */
+	private ResolvedMethod searchMethod(Environment environment, String owner, String name, String desc) {
+		MethodKey key = new MethodKey(owner, name, desc);
+		ResolvedMethod cached = resolvedMethods.get(key);
+
+		if (cached != null) {
+			return cached == ResolvedMethod.MISSING ? null : cached;
+		}
+
+		ResolvedMethod resolved = resolveMethod(environment, owner, name, desc);
+		// not computeIfAbsent, resolving recurses into the map for the super types
+		resolvedMethods.putIfAbsent(key, resolved == null ? ResolvedMethod.MISSING : resolved);
+		return resolved;
+	}
+
+	private ResolvedMethod resolveMethod(Environment environment, String owner, String name, String desc) {
 		var classDef = tree.getClass(owner);
 
 		if (classDef == null) {
@@ -158,7 +169,7 @@ public class MappingsStore {
 		var methodDef = classDef.getMethod(name, desc);
 
 		if (methodDef != null) {
-			return Map.entry(methodDef.getOwner(), methodDef);
+			return ResolvedMethod.of(methodDef);
 		}
 
 		for (String superName : environment.superTypes().getOrDefault(owner, List.of())) {
@@ -172,6 +183,39 @@ public class MappingsStore {
 		return null;
 	}
 
+	private record MethodKey(String owner, String name, String desc) {
+	}
+
+	/**
+	 * @param params parameter name and doc by local variable index, null where unmapped
+	 */
+	private record ResolvedMethod(ClassMappingView owner, MethodMappingView method, Map.Entry<String, String>[] params) {
+		static final ResolvedMethod MISSING = new ResolvedMethod(null, null, null);
+
+		@SuppressWarnings("unchecked")
+		static ResolvedMethod of(MethodMappingView methodDef) {
+			int size = 0;
+
+			for (MethodArgMappingView arg : methodDef.getArgs()) {
+				size = Math.max(size, arg.getLvIndex() + 1);
+			}
+
+			Map.Entry<String, String>[] params = new Map.Entry[size];
+
+			for (MethodArgMappingView arg : methodDef.getArgs()) {
+				int lvIndex = arg.getLvIndex();
+
+				// first mapping for a slot wins
+				if (lvIndex >= 0 && params[lvIndex] == null) {
+					// Map.entry() is null-hostile
+					params[lvIndex] = new SimpleImmutableEntry<>(arg.getSrcName(), arg.getComment());
+				}
+			}
+
+			return new ResolvedMethod(methodDef.getOwner(), methodDef, params);
+		}
+	}
+
 	public interface DocAdder {
 		void addJavadoc(String format, Object... args);
 	}
@@ -276,7 +276,7 @@ public class MethodBuilder {
 
 		while (desc.charAt(index) != ')') {
 			int oldIndex = index;
-			Map.Entry<Integer, TypeName> parsedParam = FieldBuilder.parseType(desc, index);
+			Map.Entry<Integer, TypeName> parsedParam = environment.typeNames().parseType(desc, index);
 			index = parsedParam.getKey();
 			TypeName nonAnnotatedParsedType = parsedParam.getValue();
 
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.filament.mappingpoet;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.TypeName;
+
+/**
+ * Unannotated types parsed from descriptors and internal names, shared by all builders of one {@link MappingPoet} run.
+ *
+ * <p>JavaPoet types are immutable, so every builder gets the same instance for the same name, whichever thread
+ * parsed it first.
+ */
+public final class TypeNameCache {
+	private final Map<String, TypeName> descriptors = new ConcurrentHashMap<>();
+	private final Map<String, ClassName> internalNames = new ConcurrentHashMap<>();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Cached {@link FieldBuilder#typeFromDesc(String)}.
+	 */
+	public TypeName typeFromDesc(String desc) {
+		return lookup(descriptors, desc, FieldBuilder::typeFromDesc);
+	}
+
+	/**
+	 * Cached {@link FieldBuilder#parseType(String, int)}, for the types within a method descriptor.
+	 */
+	public Map.Entry<Integer, TypeName> parseType(String desc, int start) {
+		int end = start;
+
+		while (desc.charAt(end) == '[') {
+			end++;
+		}
+
+		if (desc.charAt(end) == 'L') {
+			// leave malformed descriptors to the parser to report
+			end = desc.indexOf(';', end);
+
+			if (end < 0) {
+				return FieldBuilder.parseType(desc, start);
+			}
+		} else if (end == start) {
+			// primitives are constants already
+			return FieldBuilder.parseType(desc, start);
+		}
+
+		end++;
+		String typeDesc = start == 0 && end == desc.length() ? desc : desc.substring(start, end);
+		return new AbstractMap.SimpleImmutableEntry<>(end, typeFromDesc(typeDesc));
+	}
+
+	/**
+	 * Cached {@link ClassBuilder#parseInternalName(String)}.
+	 */
+	public ClassName parseInternalName(String internalName) {
+		return lookup(internalNames, internalName, ClassBuilder::parseInternalName);
+	}
+
+	private <T> T lookup(Map<String, T> cache, String key, Function<String, T> parser) {
+		T ret = cache.get(key);
+
+		if (ret != null) {
+			hits.increment();
+			return ret;
+		}
+
+		misses.increment();
+		ret = parser.apply(key);
+		T existing = cache.putIfAbsent(key, ret);
+		return existing != null ? existing : ret;
+	}
+
+	public Stats getStats() {
+		return new Stats(hits.sum(), misses.sum(), descriptors.size() + internalNames.size());
+	}
+
+	public record Stats(long hits, long misses, int size) {
+		public double hitRate() {
+			long lookups = hits + misses;
+			return lookups == 0 ? 0 : (double) hits / lookups;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d hits, %d misses (%.1f%% hit rate), %d types", hits, misses, hitRate() * 100, size);
+		}
+	}
+}
@@ -18,7 +18,7 @@ package net.fabricmc.filament.mappingpoet.signature;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.List;
 
 import com.squareup.javapoet.AnnotationSpec;
@@ -28,21 +28,29 @@ import org.objectweb.asm.tree.TypeAnnotationNode;
 
 import net.fabricmc.filament.mappingpoet.FieldBuilder;
 
+/**
+ * Type annotations of a member, as flat arrays sorted by target and then by {@link #comparePath type path}.
+ *
+ * <p>A bank is the range of entries whose paths share the prefix walked so far. Entries whose path ends at
+ * that prefix sort first, the rest are ordered by their next step, so advancing is a binary search for the
+ * next step within the range. Ranges with no annotations are {@link TypeAnnotationBank#EMPTY}, so unannotated
+ * types are built without allocating.
+ */
 public final class TypeAnnotationStorage implements TypeAnnotationMapping, TypeAnnotationBank {
 	private final int[] targets; // target type and info, only exist in mapping version
-	private final String[] paths;
+	private final int[][] paths; // steps encoded by encodeStep
 	private final AnnotationSpec[] contents;
 	private final int startIndex;
 	private final int endIndex;
-	private final String currentPath;
+	private final int depth; // length of the path prefix walked, only exist in bank version (-1 otherwise)
 
-	TypeAnnotationStorage(int startIndex, int endIndex, String currentPath, int[] targets, String[] paths, AnnotationSpec[] contents) {
+	TypeAnnotationStorage(int startIndex, int endIndex, int depth, int[] targets, int[][] paths, AnnotationSpec[] contents) {
 		this.targets = targets;
 		this.paths = paths;
 		this.contents = contents;
 		this.startIndex = startIndex;
 		this.endIndex = endIndex;
-		this.currentPath = currentPath;
+		this.depth = depth;
 	}
 
 	public static Builder builder() {
@@ -50,7 +58,9 @@ public final class TypeAnnotationStorage implements TypeAnnotationMapping, TypeA
 	}
 
 	static int comparePath(TypePath left, TypePath right) {
-		int len = Math.min(left.getLength(), right.getLength());
+		int leftLength = left == null ? 0 : left.getLength();
+		int rightLength = right == null ? 0 : right.getLength();
+		int len = Math.min(leftLength, rightLength);
 
 		for (int i = 0; i < len; i++) {
 			int leftStep = left.getStep(i);
@@ -69,66 +79,73 @@ public final class TypeAnnotationStorage implements TypeAnnotationMapping, TypeA
 		}
 
 		// shorter ones definitely go first!
-		return Integer.compare(left.getLength(), right.getLength());
+		return Integer.compare(leftLength, rightLength);
 	}
 
-	@Override
-	public TypeAnnotationBank advance(int step, int stepArgument) {
-		if (currentPath == null) {
-			throw new IllegalStateException();
-		}
-
-		String suffix;
+	/**
+	 * Encodes a path step so that encoded steps compare like {@link #comparePath} compares them.
+	 */
+	static int encodeStep(int step, int stepArgument) {
 		switch (step) {
 		case TypePath.ARRAY_ELEMENT:
-			suffix = "[";
-			break;
 		case TypePath.INNER_TYPE:
-			suffix = ".";
-			break;
 		case TypePath.WILDCARD_BOUND:
-			suffix = "*";
-			break;
+			return step << 8;
 		case TypePath.TYPE_ARGUMENT:
-			suffix = stepArgument + ";";
-			break;
+			// type argument indices are a u1 in the class file
+			return step << 8 | stepArgument;
 		default:
 			throw new IllegalArgumentException();
 		}
+	}
 
-		String check = currentPath.concat(suffix);
-
-		String hiCheck = check.substring(0, check.length() - 1).concat(Character.toString((char) (check.charAt(check.length() - 1) + 1)));
-
-		int low = Arrays.binarySearch(paths, startIndex, endIndex, check);
-
-		if (low < 0) {
-			low = -(low + 1);
+	@Override
+	public TypeAnnotationBank advance(int step, int stepArgument) {
+		if (depth < 0) {
+			throw new IllegalStateException();
 		}
 
+		int encoded = encodeStep(step, stepArgument);
+		// inclusive low
+		int low = searchStep(encoded);
 		// exclusive hi
-		int hi = Arrays.binarySearch(paths, startIndex, endIndex, hiCheck);
+		int hi = searchStep(encoded + 1);
+
+		return low < hi ? new TypeAnnotationStorage(low, hi, depth + 1, null, paths, contents) : TypeAnnotationBank.EMPTY;
+	}
 
-		if (hi < 0) {
-			hi = -(hi + 1);
+	/**
+	 * @return the first index in the range whose step at the current depth is at least {@code encodedStep},
+	 * entries without such a step counting as smaller than any step
+	 */
+	private int searchStep(int encodedStep) {
+		int low = startIndex;
+		int hi = endIndex;
+
+		while (low < hi) {
+			int mid = (low + hi) >>> 1;
+			int[] path = paths[mid];
+			int midStep = path.length > depth ? path[depth] : -1;
+
+			if (midStep < encodedStep) {
+				low = mid + 1;
+			} else {
+				hi = mid;
+			}
 		}
 
-		return new TypeAnnotationStorage(low, hi, check, null, paths, contents);
+		return low;
 	}
 
 	@Override
 	public List<AnnotationSpec> getCurrentAnnotations() {
-		if (currentPath == null) {
+		if (depth < 0) {
 			throw new IllegalStateException();
 		}
 
-		int hi = Arrays.binarySearch(paths, startIndex, endIndex, currentPath + '\u0000');
-
-		if (hi < 0) {
-			hi = -(hi + 1);
-		}
-
-		return Arrays.asList(contents).subList(startIndex, hi);
+		// the paths ending here come before any longer one
+		int hi = searchStep(0);
+		return hi == startIndex ? Collections.emptyList() : Arrays.asList(contents).subList(startIndex, hi);
 	}
 
 	@Override
@@ -144,20 +161,31 @@ public final class TypeAnnotationStorage implements TypeAnnotationMapping, TypeA
 
 		int target = reference.getValue();
 		// inclusive low
-		int low = Arrays.binarySearch(targets, startIndex, endIndex, target);
+		int low = searchTarget(target);
+		// exclusive hi
+		int hi = searchTarget(target + 1);
 
-		if (low < 0) {
-			low = -(low + 1);
-		}
+		return low < hi ? new TypeAnnotationStorage(low, hi, 0, null, paths, contents) : TypeAnnotationBank.EMPTY;
+	}
 
-		// exclusive hi
-		int hi = Arrays.binarySearch(targets, startIndex, endIndex, target + 1);
+	/**
+	 * @return the first index in the range whose target is at least {@code target}
+	 */
+	private int searchTarget(int target) {
+		int low = startIndex;
+		int hi = endIndex;
 
-		if (hi < 0) {
-			hi = -(hi + 1);
+		while (low < hi) {
+			int mid = (low + hi) >>> 1;
+
+			if (targets[mid] < target) {
+				low = mid + 1;
+			} else {
+				hi = mid;
+			}
 		}
 
-		return new TypeAnnotationStorage(low, hi, "", null, paths, contents);
+		return low;
 	}
 
 	public static final class Builder {
@@ -167,7 +195,7 @@ public final class TypeAnnotationStorage implements TypeAnnotationMapping, TypeA
 		}
 
 		public Builder add(int typeReference, String typePath, AnnotationSpec spec) {
-			entries.add(new Entry(typeReference, typePath, spec));
+			entries.add(new Entry(typeReference, TypePath.fromString(typePath), spec));
 			return this;
 		}
 
@@ -177,38 +205,50 @@ public final class TypeAnnotationStorage implements TypeAnnotationMapping, TypeA
 			}
 
 			for (TypeAnnotationNode node : nodes) {
-				entries.add(new Entry(node.typeRef, node.typePath == null ? "" : node.typePath.toString(), FieldBuilder.parseAnnotation(node)));
+				entries.add(new Entry(node.typeRef, node.typePath, FieldBuilder.parseAnnotation(node)));
 			}
 
 			return this;
 		}
 
 		public TypeAnnotationMapping build() {
+			if (entries.isEmpty()) {
+				return TypeAnnotationMapping.EMPTY;
+			}
+
 			this.entries.sort(null);
 			int len = this.entries.size();
 
 			int[] targets = new int[len];
-			String[] paths = new String[len];
+			int[][] paths = new int[len][];
 			AnnotationSpec[] contents = new AnnotationSpec[len];
 
-			Iterator<Entry> itr = this.entries.iterator();
-
 			for (int i = 0; i < len; i++) {
-				Entry entry = itr.next();
+				Entry entry = entries.get(i);
 				targets[i] = entry.target;
-				paths[i] = entry.path;
+				paths[i] = encodePath(entry.path);
 				contents[i] = entry.content;
 			}
 
-			return new TypeAnnotationStorage(0, len, null, targets, paths, contents);
+			return new TypeAnnotationStorage(0, len, -1, targets, paths, contents);
+		}
+
+		private static int[] encodePath(TypePath path) {
+			int[] ret = new int[path == null ? 0 : path.getLength()];
+
+			for (int i = 0; i < ret.length; i++) {
+				ret[i] = encodeStep(path.getStep(i), path.getStepArgument(i));
+			}
+
+			return ret;
 		}
 
 		private static final class Entry implements Comparable<Entry> {
 			final int target;
-			final String path;
+			final TypePath path; // null for the type itself
 			final AnnotationSpec content;
 
-			Entry(int target, String path, AnnotationSpec content) {
+			Entry(int target, TypePath path, AnnotationSpec content) {
 				this.target = target;
 				this.path = path;
 				this.content = content;
@@ -218,7 +258,7 @@ public final class TypeAnnotationStorage implements TypeAnnotationMapping, TypeA
 			public int compareTo(Entry o) {
 				int c0 = Integer.compare(target, o.target);
 				if (c0 != 0) return c0;
-				return path.compareTo(o.path);
+				return comparePath(path, o.path);
 			}
 		}
 	}
@@ -0,0 +1,157 @@
+package net.fabricmc.filament.merge;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+
+import net.fabricmc.loom.configuration.providers.minecraft.MinecraftClassMerger;
+
+/**
+ * Merges the client and server jars into one jar, marking classes only present on one side with
+ * {@code @Environment}.
+ *
+ * <p>Entries are paired by name from the jars' central directories and merged in parallel, every pair being
+ * independent of the others. A single writer adds the results to the output in name order, so the output only
+ * depends on the input jars. Signature files are dropped and the manifest is replaced with a minimal one written
+ * first, as the signed digests don't match the merged classes.
+ */
+public final class JarMerger {
+	private static final MinecraftClassMerger CLASS_MERGER = new MinecraftClassMerger();
+
+	private JarMerger() {
+	}
+
+	public static void merge(Path clientJar, Path serverJar, Path output) throws IOException {
+		Files.deleteIfExists(output);
+
+		try (ZipFile client = new ZipFile(clientJar.toFile());
+				ZipFile server = new ZipFile(serverJar.toFile());
+				ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(output))) {
+			Set<String> names = new TreeSet<>();
+			client.stream().filter(entry -> !entry.isDirectory()).forEach(entry -> names.add(entry.getName()));
+			server.stream().filter(entry -> !entry.isDirectory()).forEach(entry -> names.add(entry.getName()));
+			// the inputs' signatures don't hold for the merged classes, and their manifests list the signed digests
+			names.removeIf(JarMerger::isSignatureFile);
+			names.remove(JarFile.MANIFEST_NAME);
+
+			Set<String> directories = new HashSet<>();
+			writeDirectories(out, JarFile.MANIFEST_NAME, directories);
+			out.putNextEntry(new ZipEntry(JarFile.MANIFEST_NAME));
+			createManifest().write(out);
+			out.closeEntry();
+
+			names.parallelStream()
+					.map(name -> mergeEntry(name, client, server))
+					.forEachOrdered(entry -> {
+						if (entry == null) {
+							return;
+						}
+
+						try {
+							writeDirectories(out, entry.name(), directories);
+							ZipEntry zipEntry = new ZipEntry(entry.name());
+							zipEntry.setTime(entry.time());
+							out.putNextEntry(zipEntry);
+							out.write(entry.data());
+							out.closeEntry();
+						} catch (IOException e) {
+							throw new UncheckedIOException("Failed to write " + entry.name(), e);
+						}
+					});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static boolean isSignatureFile(String name) {
+		return name.startsWith("META-INF/") && (name.endsWith(".SF") || name.endsWith(".RSA"));
+	}
+
+	private static Manifest createManifest() {
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, "net.minecraft.client.Main");
+		return manifest;
+	}
+
+	private static MergedEntry mergeEntry(String name, ZipFile client, ZipFile server) {
+		try {
+			ZipEntry clientEntry = client.getEntry(name);
+			ZipEntry serverEntry = server.getEntry(name);
+			boolean isClass = name.endsWith(".class");
+			boolean isMinecraft = clientEntry != null || name.startsWith("net/minecraft") || !name.contains("/");
+
+			if (clientEntry != null && serverEntry != null) {
+				byte[] clientData = read(client, clientEntry);
+				byte[] serverData = read(server, serverEntry);
+
+				if (isClass && !Arrays.equals(clientData, serverData)) {
+					clientData = CLASS_MERGER.merge(clientData, serverData);
+				}
+
+				return new MergedEntry(name, clientEntry.getTime(), clientData);
+			}
+
+			if (clientEntry == null && isClass && !isMinecraft) {
+				// the server bundles libraries, the client doesn't
+				return null;
+			}
+
+			String side = clientEntry != null ? SidedClassVisitor.CLIENT : SidedClassVisitor.SERVER;
+			ZipEntry entry = clientEntry != null ? clientEntry : serverEntry;
+			byte[] data = read(clientEntry != null ? client : server, entry);
+
+			if (isClass && isMinecraft) {
+				ClassWriter writer = new ClassWriter(0);
+				new ClassReader(data).accept(new SidedClassVisitor(writer, side), 0);
+				data = writer.toByteArray();
+			}
+
+			return new MergedEntry(name, entry.getTime(), data);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to merge " + name, e);
+		}
+	}
+
+	private static byte[] read(ZipFile zip, ZipEntry entry) throws IOException {
+		try (InputStream is = zip.getInputStream(entry)) {
+			return is.readAllBytes();
+		}
+	}
+
+	/**
+	 * Adds the entries of the directories containing an entry before it, as they don't come from the inputs.
+	 */
+	private static void writeDirectories(ZipOutputStream out, String name, Set<String> written) throws IOException {
+		int end = name.indexOf('/');
+
+		while (end >= 0) {
+			String directory = name.substring(0, end + 1);
+
+			if (written.add(directory)) {
+				out.putNextEntry(new ZipEntry(directory));
+				out.closeEntry();
+			}
+
+			end = name.indexOf('/', end + 1);
+		}
+	}
+
+	private record MergedEntry(String name, long time, byte[] data) {
+	}
+}
@@ -0,0 +1,28 @@
+package net.fabricmc.filament.merge;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Adds an {@code @Environment} annotation for the given side to the visited class.
+ */
+final class SidedClassVisitor extends ClassVisitor {
+	static final String CLIENT = "CLIENT";
+	static final String SERVER = "SERVER";
+
+	private final String side;
+
+	SidedClassVisitor(ClassVisitor classVisitor, String side) {
+		super(Opcodes.ASM9, classVisitor);
+		this.side = side;
+	}
+
+	@Override
+	public void visitEnd() {
+		AnnotationVisitor annotation = cv.visitAnnotation("Lnet/fabricmc/api/Environment;", true);
+		annotation.visitEnum("value", "Lnet/fabricmc/api/EnvType;", side);
+		annotation.visitEnd();
+		super.visitEnd();
+	}
+}
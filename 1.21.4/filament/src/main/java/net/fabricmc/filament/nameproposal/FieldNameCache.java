@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2021 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.filament.nameproposal;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Field names and warnings found by {@link FieldNameFinder}, keyed by the SHA-1 of the class bytes they were found in.
+ *
+ * <p>Only the classes looked up or added since loading are saved back, so the file follows the
+ * current jar instead of growing with every version. The file starts with {@link FieldNameFinder#VERSION},
+ * a file written by another version of the finder is discarded.
+ */
+public final class FieldNameCache {
+	private static final String HEADER = "field-names v" + FieldNameFinder.VERSION;
+
+	private final Path file;
+	private final Map<String, Entry> stored;
+	private final Map<String, Entry> used = new ConcurrentHashMap<>();
+
+	private FieldNameCache(Path file, Map<String, Entry> stored) {
+		this.file = file;
+		this.stored = stored;
+	}
+
+	public static FieldNameCache load(Path file) throws IOException {
+		Map<String, Entry> stored = new HashMap<>();
+
+		if (Files.exists(file)) {
+			List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+
+			if (!lines.isEmpty() && lines.get(0).equals(HEADER)) {
+				for (String line : lines.subList(1, lines.size())) {
+					// hash [F owner name desc fieldName | W warning]
+					String[] parts = line.split("\t", 3);
+					Entry entry = stored.computeIfAbsent(parts[0], k -> new Entry(new HashMap<>(), new ArrayList<>()));
+
+					if (parts.length == 1) {
+						continue;
+					}
+
+					String[] values = parts.length == 3 ? parts[2].split("\t") : new String[0];
+
+					if (parts[1].equals("F") && values.length == 4) {
+						entry.fieldNames().put(new MappingEntry(values[0], values[1], values[2]), values[3]);
+					} else if (parts[1].equals("W") && parts.length == 3) {
+						entry.warnings().add(parts[2]);
+					} else {
+						throw new IOException("Corrupt field name cache " + file + ": " + line);
+					}
+				}
+			}
+		}
+
+		return new FieldNameCache(file, stored);
+	}
+
+	Entry get(String hash) {
+		Entry entry = stored.get(hash);
+
+		if (entry != null) {
+			used.put(hash, entry);
+		}
+
+		return entry;
+	}
+
+	void put(String hash, Entry entry) {
+		used.put(hash, entry);
+	}
+
+	public void save() throws IOException {
+		Files.createDirectories(file.toAbsolutePath().getParent());
+		Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+
+		try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+			writer.write(HEADER);
+			writer.write('\n');
+
+			for (Map.Entry<String, Entry> entry : new TreeMap<>(used).entrySet()) {
+				String hash = entry.getKey();
+				writer.write(hash);
+				writer.write('\n');
+
+				for (Map.Entry<MappingEntry, String> name : entry.getValue().fieldNames().entrySet()) {
+					MappingEntry field = name.getKey();
+					writer.write(String.join("\t", hash, "F", field.owner(), field.name(), field.desc(), name.getValue()));
+					writer.write('\n');
+				}
+
+				for (String warning : entry.getValue().warnings()) {
+					writer.write(String.join("\t", hash, "W", warning));
+					writer.write('\n');
+				}
+			}
+		}
+
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	record Entry(Map<MappingEntry, String> fieldNames, List<String> warnings) {
+	}
+}
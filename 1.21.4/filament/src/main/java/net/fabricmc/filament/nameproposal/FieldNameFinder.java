@@ -16,13 +16,15 @@
 
 package net.fabricmc.filament.nameproposal;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.StreamSupport;
 
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.Opcodes;
@@ -38,127 +40,215 @@ import org.objectweb.asm.tree.analysis.Frame;
 import org.objectweb.asm.tree.analysis.SourceInterpreter;
 import org.objectweb.asm.tree.analysis.SourceValue;
 
+import net.fabricmc.filament.util.HashUtil;
+
+/**
+ * Proposes names for static fields from the string constants passed to their initializers.
+ *
+ * <p>Names only have to be unique within their owner, so every class is analyzed on its own and in parallel.
+ * Results are merged in class name order, and can be cached by the hash of the class bytes.
+ */
 public class FieldNameFinder {
+	/**
+	 * Version of the names and warnings found, to be bumped whenever they change for the same class bytes.
+	 * Cached results of other versions are discarded.
+	 */
+	static final int VERSION = 1;
+
+	private final FieldNameCache cache;
+
+	public FieldNameFinder() {
+		this(null);
+	}
+
+	/**
+	 * @param cache results of previously analyzed classes, or null
+	 */
+	public FieldNameFinder(FieldNameCache cache) {
+		this.cache = cache;
+	}
+
 	public Map<MappingEntry, String> findNames(Iterable<byte[]> classes) throws Exception {
-		Map<String, List<MethodNode>> methods = new HashMap<>();
+		List<ClassResult> results = StreamSupport.stream(classes.spliterator(), false)
+				.toList()
+				.parallelStream()
+				.map(data -> findNames(new ClassReader(data), cache != null ? HashUtil.sha1(data) : null))
+				.toList();
+
+		return merge(results);
+	}
+
+	public Map<MappingEntry, String> findNames(Map<String, Set<String>> allEnumFields, Map<String, List<MethodNode>> classes) {
+		return merge(findClassNames(allEnumFields, classes));
+	}
+
+	List<ClassResult> findClassNames(Map<String, Set<String>> allEnumFields, Map<String, List<MethodNode>> classes) {
+		return classes.entrySet().parallelStream()
+				.map(entry -> analyze(entry.getKey(), allEnumFields.getOrDefault(entry.getKey(), Collections.emptySet()), entry.getValue(), null))
+				.toList();
+	}
+
+	/**
+	 * Finds the field names of a single class, reading only its enum fields and {@code <clinit>}.
+	 *
+	 * @param hash SHA-1 of the class bytes to look up and store the result under, or null
+	 */
+	ClassResult findNames(ClassReader reader, String hash) {
+		String owner = reader.getClassName();
+		FieldNameCache.Entry cached = hash != null && cache != null ? cache.get(hash) : null;
+
+		if (cached != null) {
+			return new ClassResult(owner, cached.fieldNames(), cached.warnings());
+		}
+
 		Map<String, Set<String>> enumFields = new HashMap<>();
+		Map<String, List<MethodNode>> methods = new HashMap<>();
+		// other method bodies are skipped by the visitor
+		reader.accept(new NameFinderVisitor(Constants.ASM_VERSION, enumFields, methods), ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+		return analyze(owner, enumFields.getOrDefault(owner, Collections.emptySet()), methods.getOrDefault(owner, List.of()), hash);
+	}
+
+	static Map<MappingEntry, String> merge(List<ClassResult> results) {
+		Map<MappingEntry, String> fieldNames = new HashMap<>();
+		List<ClassResult> sorted = new ArrayList<>(results);
+		sorted.sort(Comparator.comparing(ClassResult::owner));
 
-		for (byte[] data : classes) {
-			ClassReader reader = new ClassReader(data);
-			NameFinderVisitor vClass = new NameFinderVisitor(Constants.ASM_VERSION, enumFields, methods);
-			reader.accept(vClass, ClassReader.SKIP_FRAMES);
+		for (ClassResult result : sorted) {
+			result.warnings().forEach(System.out::println);
+			fieldNames.putAll(result.fieldNames());
 		}
 
-		return findNames(enumFields, methods);
+		return fieldNames;
 	}
 
-	public Map<MappingEntry, String> findNames(Map<String, Set<String>> allEnumFields, Map<String, List<MethodNode>> classes) {
+	private ClassResult analyze(String owner, Set<String> enumFields, List<MethodNode> methods, String hash) {
 		Analyzer<SourceValue> analyzer = new Analyzer<>(new SourceInterpreter());
 		Map<MappingEntry, String> fieldNames = new HashMap<>();
-		Map<String, Set<String>> fieldNamesUsed = new HashMap<>();
-		Map<String, Set<String>> fieldNamesDuplicate = new HashMap<>();
-
-		for (Map.Entry<String, List<MethodNode>> entry : classes.entrySet()) {
-			String owner = entry.getKey();
-			Set<String> enumFields = allEnumFields.getOrDefault(owner, Collections.emptySet());
+		Set<String> usedNames = new HashSet<>();
+		Set<String> usedNamesDuplicate = new HashSet<>();
+		List<String> warnings = new ArrayList<>();
 
-			for (MethodNode mn : entry.getValue()) {
-				Frame<SourceValue>[] frames;
+		for (MethodNode mn : methods) {
+			Frame<SourceValue>[] frames;
 
-				try {
-					frames = analyzer.analyze(owner, mn);
-				} catch (AnalyzerException e) {
-					throw new RuntimeException(e);
-				}
+			try {
+				frames = analyzer.analyze(owner, mn);
+			} catch (AnalyzerException e) {
+				throw new RuntimeException(e);
+			}
 
-				InsnList instrs = mn.instructions;
-
-				for (int i = 1; i < instrs.size(); i++) {
-					AbstractInsnNode instr1 = instrs.get(i - 1);
-					AbstractInsnNode instr2 = instrs.get(i);
-					String s = null;
-
-					if (instr2.getOpcode() == Opcodes.PUTSTATIC && ((FieldInsnNode) instr2).owner.equals(owner)
-							&& (instr1 instanceof MethodInsnNode && ((MethodInsnNode) instr1).owner.equals(owner) || enumFields.contains(((FieldInsnNode) instr2).desc + ((FieldInsnNode) instr2).name))
-							&& (instr1.getOpcode() == Opcodes.INVOKESTATIC || (instr1.getOpcode() == Opcodes.INVOKESPECIAL && "<init>".equals(((MethodInsnNode) instr1).name)))) {
-						for (int j = 0; j < frames[i - 1].getStackSize(); j++) {
-							SourceValue sv = frames[i - 1].getStack(j);
-
-							for (AbstractInsnNode ci : sv.insns) {
-								if (ci instanceof LdcInsnNode && ((LdcInsnNode) ci).cst instanceof String) {
-									//if (s == null || !s.equals(((LdcInsnNode) ci).cst)) {
-									if (s == null) {
-										s = (String) (((LdcInsnNode) ci).cst);
-										// stringsFound++;
-									}
+			InsnList instrs = mn.instructions;
+
+			for (int i = 1; i < instrs.size(); i++) {
+				AbstractInsnNode instr1 = instrs.get(i - 1);
+				AbstractInsnNode instr2 = instrs.get(i);
+				String s = null;
+
+				if (instr2.getOpcode() == Opcodes.PUTSTATIC && ((FieldInsnNode) instr2).owner.equals(owner)
+						&& (instr1 instanceof MethodInsnNode && ((MethodInsnNode) instr1).owner.equals(owner) || enumFields.contains(((FieldInsnNode) instr2).desc + ((FieldInsnNode) instr2).name))
+						&& (instr1.getOpcode() == Opcodes.INVOKESTATIC || (instr1.getOpcode() == Opcodes.INVOKESPECIAL && "<init>".equals(((MethodInsnNode) instr1).name)))) {
+					for (int j = 0; j < frames[i - 1].getStackSize(); j++) {
+						SourceValue sv = frames[i - 1].getStack(j);
+
+						for (AbstractInsnNode ci : sv.insns) {
+							if (ci instanceof LdcInsnNode && ((LdcInsnNode) ci).cst instanceof String) {
+								//if (s == null || !s.equals(((LdcInsnNode) ci).cst)) {
+								if (s == null) {
+									s = (String) (((LdcInsnNode) ci).cst);
+									// stringsFound++;
 								}
 							}
 						}
 					}
+				}
 
-					if (s != null) {
-						if (s.contains(":")) {
-							s = s.substring(s.indexOf(':') + 1);
-						}
-
-						if (s.contains("/")) {
-							int separator = s.indexOf('/');
-							String sFirst = s.substring(0, separator);
-							String sLast;
+				if (s != null) {
+					if (s.contains(":")) {
+						s = s.substring(s.indexOf(':') + 1);
+					}
 
-							if (s.contains(".") && s.indexOf('.') > separator) {
-								sLast = s.substring(separator + 1, s.indexOf('.'));
-							} else {
-								sLast = s.substring(separator + 1);
-							}
+					if (s.contains("/")) {
+						int separator = s.indexOf('/');
+						String sFirst = s.substring(0, separator);
+						String sLast;
 
-							if (sFirst.endsWith("s")) {
-								sFirst = sFirst.substring(0, sFirst.length() - 1);
-							}
+						if (s.contains(".") && s.indexOf('.') > separator) {
+							sLast = s.substring(separator + 1, s.indexOf('.'));
+						} else {
+							sLast = s.substring(separator + 1);
+						}
 
-							s = sLast + "_" + sFirst;
+						if (sFirst.endsWith("s")) {
+							sFirst = sFirst.substring(0, sFirst.length() - 1);
 						}
 
-						String oldS = s;
-						boolean hasAlpha = false;
+						s = sLast + "_" + sFirst;
+					}
 
-						for (int j = 0; j < s.length(); j++) {
-							char c = s.charAt(j);
+					String oldS = s;
+					s = toConstantName(s);
 
-							if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')) {
-								hasAlpha = true;
+					if (s != null) {
+						// PUTSTATIC owner == owner, so the names only need to be unique within this class
+						if (!usedNamesDuplicate.contains(s)) {
+							if (!usedNames.add(s)) {
+								warnings.add("Warning: Duplicate key: " + s + " (" + oldS + ")!");
+								usedNamesDuplicate.add(s);
+								usedNames.remove(s);
 							}
+						}
 
-							if (!(c >= 'A' && c <= 'Z') && !(c >= 'a' && c <= 'z') && !(c >= '0' && c <= '9') && !(c == '_')) {
-								s = s.substring(0, j) + "_" + s.substring(j + 1);
-							} else if (j > 0 && Character.isUpperCase(s.charAt(j)) && Character.isLowerCase(s.charAt(j - 1))) {
-								s = s.substring(0, j) + "_" + s.substring(j, j + 1).toLowerCase(Locale.ROOT) + s.substring(j + 1);
-							}
+						if (usedNames.contains(s)) {
+							fieldNames.put(new MappingEntry(((FieldInsnNode) instr2).owner, ((FieldInsnNode) instr2).name, ((FieldInsnNode) instr2).desc), s);
 						}
+					}
+				}
+			}
+		}
 
-						if (hasAlpha) {
-							s = s.toUpperCase(Locale.ROOT);
+		if (hash != null && cache != null) {
+			cache.put(hash, new FieldNameCache.Entry(fieldNames, warnings));
+		}
 
-							Set<String> usedNames = fieldNamesUsed.computeIfAbsent(((FieldInsnNode) instr2).owner, (a) -> new HashSet<>());
-							Set<String> usedNamesDuplicate = fieldNamesDuplicate.computeIfAbsent(((FieldInsnNode) instr2).owner, (a) -> new HashSet<>());
+		return new ClassResult(owner, fieldNames, warnings);
+	}
 
-							if (!usedNamesDuplicate.contains(s)) {
-								if (!usedNames.add(s)) {
-									System.out.println("Warning: Duplicate key: " + s + " (" + oldS + ")!");
-									usedNamesDuplicate.add(s);
-									usedNames.remove(s);
-								}
-							}
+	/**
+	 * Turns a string constant into an upper snake case field name in a single pass: characters that
+	 * are not valid in an identifier become {@code _}, and camel case humps are split with {@code _}.
+	 *
+	 * @return the name, or null if the string has no letters to build a name from
+	 */
+	static String toConstantName(String s) {
+		StringBuilder sb = new StringBuilder(s.length() + 8);
+		boolean hasAlpha = false;
+		boolean lastLower = false;
+
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			boolean upper = c >= 'A' && c <= 'Z';
+			boolean lower = c >= 'a' && c <= 'z';
+
+			if (upper || lower) {
+				hasAlpha = true;
+			}
 
-							if (usedNames.contains(s)) {
-								fieldNames.put(new MappingEntry(((FieldInsnNode) instr2).owner, ((FieldInsnNode) instr2).name, ((FieldInsnNode) instr2).desc), s);
-							}
-						}
-					}
-				}
+			if (!upper && !lower && !(c >= '0' && c <= '9') && c != '_') {
+				sb.append('_');
+				lastLower = false;
+			} else if (upper && lastLower) {
+				// the split off character counts as lower case for the next one
+				sb.append('_').append(c);
+			} else {
+				sb.append(lower ? (char) (c - ('a' - 'A')) : c);
+				lastLower = lower;
 			}
 		}
 
-		return fieldNames;
+		return hasAlpha ? sb.toString() : null;
+	}
+
+	record ClassResult(String owner, Map<MappingEntry, String> fieldNames, List<String> warnings) {
 	}
 }
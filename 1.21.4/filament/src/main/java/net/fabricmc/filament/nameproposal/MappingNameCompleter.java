@@ -17,19 +17,16 @@
 package net.fabricmc.filament.nameproposal;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
-import java.util.jar.JarEntry;
-import java.util.jar.JarInputStream;
+import java.util.jar.JarFile;
 import java.util.regex.Pattern;
 
-import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.tree.ClassNode;
-
 import net.fabricmc.mappingio.MappedElementKind;
 import net.fabricmc.mappingio.MappingReader;
 import net.fabricmc.mappingio.MappingWriter;
@@ -44,7 +41,15 @@ public class MappingNameCompleter {
 	}
 
 	public static void completeNames(Path intermediaryJar, Path inputYarnMappings, Path inputIntermediaryMappings, Path outputYarnMappings) throws IOException {
-		NameFinder nameFinder = new NameFinder();
+		completeNames(intermediaryJar, inputYarnMappings, inputIntermediaryMappings, outputYarnMappings, null);
+	}
+
+	/**
+	 * @param fieldNameCache file to keep proposed field names of unchanged classes in between runs, or null
+	 */
+	public static void completeNames(Path intermediaryJar, Path inputYarnMappings, Path inputIntermediaryMappings, Path outputYarnMappings, Path fieldNameCache) throws IOException {
+		FieldNameCache cache = fieldNameCache != null ? FieldNameCache.load(fieldNameCache) : null;
+		NameFinder nameFinder = new NameFinder(cache);
 
 		acceptJar(nameFinder, intermediaryJar);
 
@@ -55,6 +60,10 @@ public class MappingNameCompleter {
 		Map<MappingEntry, String> methodNames = nameFinder.getMethodNames();
 		Map<String, String> recordNames = nameFinder.getRecordNames();
 
+		if (cache != null) {
+			cache.save();
+		}
+
 		System.out.printf("Found %d field names%n", fieldNames.size());
 		System.out.printf("Found %d method names%n", methodNames.size());
 		System.out.printf("Found %d record names%n", recordNames.size());
@@ -106,21 +115,24 @@ public class MappingNameCompleter {
 		}
 	}
 
+	/**
+	 * Reads the jar with random access so entries can be processed in parallel. Each class is only held
+	 * while it is being read, the finder keeps the names and nothing else.
+	 */
 	private static void acceptJar(NameFinder nameFinder, Path jar) throws IOException {
-		try (JarInputStream jarInputStream = new JarInputStream(Files.newInputStream(jar))) {
-			JarEntry entry;
-
-			while ((entry = jarInputStream.getNextJarEntry()) != null) {
-				if (!entry.getName().endsWith(".class")) {
-					continue;
-				}
-
-				ClassReader reader = new ClassReader(jarInputStream);
-				ClassNode classNode = new ClassNode();
-				reader.accept(classNode, 0);
-
-				nameFinder.accept(classNode);
-			}
+		try (JarFile jarFile = new JarFile(jar.toFile())) {
+			jarFile.stream()
+					.parallel()
+					.filter(entry -> entry.getName().endsWith(".class"))
+					.map(entry -> {
+						try (InputStream is = jarFile.getInputStream(entry)) {
+							return nameFinder.read(is.readAllBytes());
+						} catch (IOException e) {
+							throw new UncheckedIOException("Failed to read " + entry.getName(), e);
+						}
+					})
+					// merge in jar order, so conflicting record component names resolve the same way every time
+					.forEachOrdered(nameFinder::accept);
 		}
 	}
 
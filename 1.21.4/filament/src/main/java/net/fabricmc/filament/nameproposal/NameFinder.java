@@ -16,18 +16,26 @@
 
 package net.fabricmc.filament.nameproposal;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
+import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.MethodNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import net.fabricmc.filament.util.HashUtil;
 import net.fabricmc.mappingio.tree.MappingTree;
 import net.fabricmc.mappingio.tree.MemoryMappingTree;
 
 public class NameFinder {
+	private static final Logger LOGGER = LoggerFactory.getLogger(NameFinder.class);
+
 	// comp_x -> name
 	private final Map<String, String> recordNames = new HashMap<>();
 	private final Map<MappingEntry, String> recordFieldNames = new HashMap<>();
@@ -35,6 +43,19 @@ public class NameFinder {
 
 	private final Map<String, Set<String>> enumFields = new HashMap<>();
 	private final Map<String, List<MethodNode>> methods = new HashMap<>();
+	private final List<FieldNameFinder.ClassResult> fieldResults = new ArrayList<>();
+	private final FieldNameCache fieldNameCache;
+
+	public NameFinder() {
+		this(null);
+	}
+
+	/**
+	 * @param fieldNameCache field names of previously seen classes, or null
+	 */
+	public NameFinder(FieldNameCache fieldNameCache) {
+		this.fieldNameCache = fieldNameCache;
+	}
 
 	public void accept(ClassNode classNode) {
 		classNode.accept(new NameFinderVisitor(Constants.ASM_VERSION, enumFields, methods));
@@ -44,6 +65,39 @@ public class NameFinder {
 		}
 	}
 
+	/**
+	 * Reads a class straight from its bytes without building a {@link ClassNode}. Only {@code <clinit>} and
+	 * the object methods of records are visited, and the field names are resolved right away, so no method
+	 * bodies are kept once this returns.
+	 *
+	 * <p>This does not modify the finder and may be called from several threads, the result is added
+	 * with {@link #accept(ClassFindings)}.
+	 */
+	ClassFindings read(byte[] classBytes) {
+		ClassReader reader = new ClassReader(classBytes);
+		String hash = fieldNameCache != null ? HashUtil.sha1(classBytes) : null;
+		FieldNameFinder.ClassResult fieldNames = new FieldNameFinder(fieldNameCache).findNames(reader, hash);
+		Map<String, String> classRecordNames = new HashMap<>();
+
+		if ("java/lang/Record".equals(reader.getSuperName())) {
+			reader.accept(new RecordComponentNameFinder(Constants.ASM_VERSION, classRecordNames), ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+		}
+
+		return new ClassFindings(reader.getClassName(), fieldNames, classRecordNames);
+	}
+
+	void accept(ClassFindings findings) {
+		fieldResults.add(findings.fieldNames());
+
+		for (Map.Entry<String, String> entry : findings.recordNames().entrySet()) {
+			String old = recordNames.put(entry.getKey(), entry.getValue());
+
+			if (old != null && !old.equals(entry.getValue())) {
+				LOGGER.warn("Found conflicting name for component {} in {}, replaced {} with {}", entry.getKey(), findings.owner(), old, entry.getValue());
+			}
+		}
+	}
+
 	public void acceptIntermediaryMappings(MemoryMappingTree mappingTree) {
 		if (recordNames.isEmpty()) {
 			return;
@@ -51,36 +105,64 @@ public class NameFinder {
 
 		final int intermediaryId = mappingTree.getNamespaceId("intermediary");
 
-		for (Map.Entry<String, String> entry : recordNames.entrySet()) {
-			boolean foundMethod = false;
-			boolean foundField = false;
-
-			for (MappingTree.ClassMapping classMapping : mappingTree.getClasses()) {
-				for (MappingTree.FieldMapping fieldMapping : classMapping.getFields()) {
-					if (fieldMapping.getName(intermediaryId).equals(entry.getKey())) {
-						MappingEntry fieldEntry = new MappingEntry(classMapping.getName(intermediaryId), fieldMapping.getName(intermediaryId), fieldMapping.getDesc(intermediaryId));
-						recordFieldNames.put(fieldEntry, entry.getValue());
-						foundField = true;
-					}
+		// One pass over the tree, indexing the members that record components refer to by their intermediary name
+		Map<String, List<MappingEntry>> fieldsByName = new HashMap<>();
+		Map<String, List<MappingEntry>> methodsByName = new HashMap<>();
+
+		for (MappingTree.ClassMapping classMapping : mappingTree.getClasses()) {
+			String owner = classMapping.getName(intermediaryId);
+
+			for (MappingTree.FieldMapping fieldMapping : classMapping.getFields()) {
+				String name = fieldMapping.getName(intermediaryId);
+
+				if (recordNames.containsKey(name)) {
+					fieldsByName.computeIfAbsent(name, k -> new ArrayList<>()).add(new MappingEntry(owner, name, fieldMapping.getDesc(intermediaryId)));
 				}
+			}
+
+			for (MappingTree.MethodMapping methodMapping : classMapping.getMethods()) {
+				String name = methodMapping.getName(intermediaryId);
 
-				for (MappingTree.MethodMapping methodMapping : classMapping.getMethods()) {
-					if (methodMapping.getName(intermediaryId).equals(entry.getKey())) {
-						MappingEntry fieldEntry = new MappingEntry(classMapping.getName(intermediaryId), methodMapping.getName(intermediaryId), methodMapping.getDesc(intermediaryId));
-						recordMethodNames.put(fieldEntry, entry.getValue());
-						foundMethod = true;
-					}
+				if (recordNames.containsKey(name)) {
+					methodsByName.computeIfAbsent(name, k -> new ArrayList<>()).add(new MappingEntry(owner, name, methodMapping.getDesc(intermediaryId)));
 				}
 			}
+		}
+
+		Set<String> missingFields = new TreeSet<>();
+		Set<String> missingMethods = new TreeSet<>();
+
+		for (Map.Entry<String, String> entry : recordNames.entrySet()) {
+			List<MappingEntry> fields = fieldsByName.getOrDefault(entry.getKey(), List.of());
+			List<MappingEntry> methods = methodsByName.getOrDefault(entry.getKey(), List.of());
+
+			for (MappingEntry field : fields) {
+				recordFieldNames.put(field, entry.getValue());
+			}
+
+			for (MappingEntry method : methods) {
+				recordMethodNames.put(method, entry.getValue());
+			}
 
-			if (!foundField) {
-				System.err.println("Failed to find field for " + entry);
+			if (fields.isEmpty()) {
+				missingFields.add(entry.toString());
 			}
 
-			if (!foundMethod) {
-				System.err.println("Failed to find method for " + entry);
+			if (methods.isEmpty()) {
+				missingMethods.add(entry.toString());
 			}
 		}
+
+		reportMissing("field", missingFields);
+		reportMissing("method", missingMethods);
+	}
+
+	private static void reportMissing(String kind, Set<String> missing) {
+		if (missing.isEmpty()) {
+			return;
+		}
+
+		System.err.printf("Failed to find %s for %d record components:%n\t%s%n", kind, missing.size(), String.join("\n\t", missing));
 	}
 
 	public Map<String, String> getRecordNames() {
@@ -88,7 +170,9 @@ public class NameFinder {
 	}
 
 	public Map<MappingEntry, String> getFieldNames() {
-		Map<MappingEntry, String> fieldNames = new HashMap<>(new FieldNameFinder().findNames(enumFields, methods));
+		List<FieldNameFinder.ClassResult> results = new ArrayList<>(fieldResults);
+		results.addAll(new FieldNameFinder(fieldNameCache).findClassNames(enumFields, methods));
+		Map<MappingEntry, String> fieldNames = FieldNameFinder.merge(results);
 		fieldNames.putAll(recordFieldNames);
 		return fieldNames;
 	}
@@ -96,4 +180,7 @@ public class NameFinder {
 	public Map<MappingEntry, String> getMethodNames() {
 		return recordMethodNames;
 	}
+
+	record ClassFindings(String owner, FieldNameFinder.ClassResult fieldNames, Map<String, String> recordNames) {
+	}
 }
@@ -0,0 +1,149 @@
+package net.fabricmc.filament.remap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+
+import net.fabricmc.filament.util.HashUtil;
+import net.fabricmc.tinyremapper.IMappingProvider;
+import net.fabricmc.tinyremapper.TinyUtils;
+
+/**
+ * Shares the state of jar remapping between the remap tasks of a build.
+ *
+ * <p>Parsed mappings are kept per file contents and namespaces, and replayed into each remapper using them.
+ * Classpath jars are reduced to stubs holding only the class structure, with method code and debug info
+ * stripped, which is all the remapper reads from the classpath. Stubs are stored in the cache directory
+ * under the SHA-1 of their jar, so unchanged libraries are only stripped once.
+ */
+public abstract class RemapperService implements BuildService<RemapperService.Parameters> {
+	public static final String NAME = "filamentRemapper";
+
+	private final Map<MappingsKey, IMappingProvider> mappings = new ConcurrentHashMap<>();
+	private final Map<Path, Path> classpathStubs = new ConcurrentHashMap<>();
+
+	public interface Parameters extends BuildServiceParameters {
+		DirectoryProperty getCacheDirectory();
+	}
+
+	public IMappingProvider getMappings(Path file, String from, String to) throws IOException {
+		MappingsKey key = new MappingsKey(HashUtil.sha1(file), from, to);
+		return mappings.computeIfAbsent(key, k -> RecordedMappings.read(TinyUtils.createTinyMappingProvider(file, from, to)));
+	}
+
+	public List<Path> getClasspath(List<Path> jars) {
+		return jars.parallelStream()
+				.map(jar -> classpathStubs.computeIfAbsent(jar, this::getStub))
+				.toList();
+	}
+
+	private Path getStub(Path jar) {
+		try {
+			if (!Files.isRegularFile(jar)) {
+				// directories are read as they are
+				return jar;
+			}
+
+			Path cacheDirectory = getParameters().getCacheDirectory().get().getAsFile().toPath();
+			Path stub = cacheDirectory.resolve(HashUtil.sha1(jar) + ".jar");
+
+			if (!Files.exists(stub)) {
+				Files.createDirectories(cacheDirectory);
+				Path tmp = Files.createTempFile(cacheDirectory, stub.getFileName().toString(), ".tmp");
+				writeStub(jar, tmp);
+				// other builds may be stripping the same library, whichever finishes last wins
+				Files.move(tmp, stub, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+
+			return stub;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to read classpath jar " + jar, e);
+		}
+	}
+
+	private static void writeStub(Path jar, Path output) throws IOException {
+		try (JarFile jarFile = new JarFile(jar.toFile());
+				JarOutputStream out = new JarOutputStream(Files.newOutputStream(output))) {
+			for (JarEntry entry : (Iterable<JarEntry>) jarFile.stream()::iterator) {
+				if (entry.isDirectory() || !entry.getName().endsWith(".class")) {
+					continue;
+				}
+
+				ClassWriter writer = new ClassWriter(0);
+
+				try (InputStream is = jarFile.getInputStream(entry)) {
+					new ClassReader(is).accept(writer, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+				}
+
+				out.putNextEntry(new JarEntry(entry.getName()));
+				out.write(writer.toByteArray());
+				out.closeEntry();
+			}
+		}
+	}
+
+	private record MappingsKey(String hash, String from, String to) {
+	}
+
+	/**
+	 * A mapping provider that replays the mappings read once from another provider.
+	 */
+	private record RecordedMappings(List<Consumer<IMappingProvider.MappingAcceptor>> entries) implements IMappingProvider {
+		static RecordedMappings read(IMappingProvider provider) {
+			List<Consumer<MappingAcceptor>> entries = new ArrayList<>();
+
+			provider.load(new MappingAcceptor() {
+				@Override
+				public void acceptClass(String srcName, String dstName) {
+					entries.add(out -> out.acceptClass(srcName, dstName));
+				}
+
+				@Override
+				public void acceptMethod(Member method, String dstName) {
+					entries.add(out -> out.acceptMethod(method, dstName));
+				}
+
+				@Override
+				public void acceptMethodArg(Member method, int lvIndex, String dstName) {
+					entries.add(out -> out.acceptMethodArg(method, lvIndex, dstName));
+				}
+
+				@Override
+				public void acceptMethodVar(Member method, int lvIndex, int startOpIdx, int asmIndex, String dstName) {
+					entries.add(out -> out.acceptMethodVar(method, lvIndex, startOpIdx, asmIndex, dstName));
+				}
+
+				@Override
+				public void acceptField(Member field, String dstName) {
+					entries.add(out -> out.acceptField(field, dstName));
+				}
+			});
+
+			return new RecordedMappings(List.copyOf(entries));
+		}
+
+		@Override
+		public void load(MappingAcceptor out) {
+			for (Consumer<MappingAcceptor> entry : entries) {
+				entry.accept(out);
+			}
+		}
+	}
+}
@@ -1,21 +1,28 @@
 package net.fabricmc.filament.task;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import javax.inject.Inject;
 
 import daomephsta.unpick.constantmappers.datadriven.parser.v2.UnpickV2Reader;
 import daomephsta.unpick.constantmappers.datadriven.parser.v2.UnpickV2Writer;
-import org.gradle.api.DefaultTask;
 import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.OutputFile;
 import org.gradle.api.tasks.TaskAction;
 import org.gradle.workers.WorkAction;
@@ -23,25 +30,42 @@ import org.gradle.workers.WorkParameters;
 import org.gradle.workers.WorkQueue;
 import org.gradle.workers.WorkerExecutor;
 
+import net.fabricmc.filament.task.base.FilamentTask;
 import net.fabricmc.filament.util.FileUtil;
+import net.fabricmc.filament.util.HashUtil;
 import net.fabricmc.filament.util.UnpickUtil;
 
-public abstract class CombineUnpickDefinitionsTask extends DefaultTask {
+/**
+ * Combines the unpick definition files into a single file.
+ *
+ * <p>The normalized output of every file is cached under the SHA-1 of its contents, so only files that
+ * changed since the last run are parsed again and the combined file is put together from the cache.
+ */
+public abstract class CombineUnpickDefinitionsTask extends FilamentTask {
 	@InputDirectory
 	public abstract DirectoryProperty getInput();
 
 	@OutputFile
 	public abstract RegularFileProperty getOutput();
 
+	@Internal
+	public abstract DirectoryProperty getCacheDirectory();
+
 	@Inject
 	protected abstract WorkerExecutor getWorkerExecutor();
 
+	@Inject
+	public CombineUnpickDefinitionsTask() {
+		getCacheDirectory().convention(getExtension().getCacheDirectory().dir("unpick/" + getName()));
+	}
+
 	@TaskAction
 	public void run() {
 		WorkQueue workQueue = getWorkerExecutor().noIsolation();
 		workQueue.submit(CombineAction.class, parameters -> {
 			parameters.getInput().set(getInput());
 			parameters.getOutput().set(getOutput());
+			parameters.getCacheDirectory().set(getCacheDirectory());
 		});
 	}
 
@@ -51,9 +75,14 @@ public abstract class CombineUnpickDefinitionsTask extends DefaultTask {
 
 		@OutputFile
 		RegularFileProperty getOutput();
+
+		@Internal
+		DirectoryProperty getCacheDirectory();
 	}
 
 	public abstract static class CombineAction implements WorkAction<CombineParameters> {
+		private static final String HEADER = "v2\n";
+
 		@Inject
 		public CombineAction() {
 		}
@@ -64,26 +93,79 @@ public abstract class CombineUnpickDefinitionsTask extends DefaultTask {
 				File output = getParameters().getOutput().getAsFile().get();
 				FileUtil.deleteIfExists(output);
 
-				UnpickV2Writer writer = new UnpickV2Writer();
+				Path cacheDirectory = getParameters().getCacheDirectory().get().getAsFile().toPath();
+				Files.createDirectories(cacheDirectory);
 
 				// Sort inputs to get reproducible outputs (also for testing)
 				List<File> files = new ArrayList<>(getParameters().getInput().getAsFileTree().getFiles());
+				files.removeIf(file -> !file.getName().endsWith(".unpick"));
 				files.sort(Comparator.comparing(File::getName));
 
-				for (File file : files) {
-					if (!file.getName().endsWith(".unpick")) {
-						continue;
-					}
+				List<CachedDefinitions> definitions = files.parallelStream()
+						.map(file -> read(file.toPath(), cacheDirectory))
+						.toList();
 
-					try (UnpickV2Reader reader = new UnpickV2Reader(new FileInputStream(file))) {
-						reader.accept(writer);
-					}
+				StringBuilder combined = new StringBuilder(HEADER);
+				Set<String> used = new HashSet<>();
+
+				for (CachedDefinitions entry : definitions) {
+					combined.append(entry.normalized());
+					used.add(entry.cacheFile().getFileName().toString());
 				}
 
-				FileUtil.write(output, UnpickUtil.getLfOutput(writer));
+				FileUtil.write(output, combined.toString());
+				pruneCache(cacheDirectory, used);
 			} catch (IOException e) {
 				throw new UncheckedIOException(e);
 			}
 		}
+
+		private static CachedDefinitions read(Path file, Path cacheDirectory) {
+			try {
+				byte[] bytes = Files.readAllBytes(file);
+				Path cacheFile = cacheDirectory.resolve(HashUtil.sha1(bytes) + ".unpick");
+
+				if (Files.exists(cacheFile)) {
+					return new CachedDefinitions(cacheFile, Files.readString(cacheFile, StandardCharsets.UTF_8));
+				}
+
+				UnpickV2Writer writer = new UnpickV2Writer();
+
+				try (UnpickV2Reader reader = new UnpickV2Reader(new ByteArrayInputStream(bytes))) {
+					reader.accept(writer);
+				}
+
+				// every file is written with its own header, the combined file only has one
+				String normalized = UnpickUtil.getLfOutput(writer);
+
+				if (normalized.startsWith(HEADER)) {
+					normalized = normalized.substring(HEADER.length());
+				}
+
+				Path tmp = Files.createTempFile(cacheDirectory, cacheFile.getFileName().toString(), ".tmp");
+				Files.writeString(tmp, normalized, StandardCharsets.UTF_8);
+				Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+				return new CachedDefinitions(cacheFile, normalized);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Failed to read unpick definitions " + file, e);
+			}
+		}
+
+		/**
+		 * Deletes the cached outputs of file contents that no longer exist, so the cache follows the definitions.
+		 */
+		private static void pruneCache(Path cacheDirectory, Set<String> used) throws IOException {
+			try (Stream<Path> cached = Files.list(cacheDirectory)) {
+				for (Path file : (Iterable<Path>) cached::iterator) {
+					if (!used.contains(file.getFileName().toString())) {
+						Files.deleteIfExists(file);
+					}
+				}
+			}
+		}
+
+		private record CachedDefinitions(Path cacheFile, String normalized) {
+		}
 	}
 }
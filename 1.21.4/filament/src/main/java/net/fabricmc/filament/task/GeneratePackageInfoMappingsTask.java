@@ -5,8 +5,8 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
-import java.util.Enumeration;
-import java.util.zip.ZipEntry;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.zip.ZipFile;
 
 import org.gradle.api.DefaultTask;
@@ -19,7 +19,6 @@ import org.gradle.api.tasks.OutputDirectory;
 import org.gradle.api.tasks.TaskAction;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.Opcodes;
-import org.objectweb.asm.tree.ClassNode;
 
 import net.fabricmc.filament.util.FileUtil;
 
@@ -49,53 +48,94 @@ public class GeneratePackageInfoMappingsTask extends DefaultTask {
 
 		FileUtil.deleteDirectory(outputDir.get().getAsFile());
 
+		List<String> packageInfos;
+
 		try (ZipFile zipFile = new ZipFile(inputJar.get().getAsFile())) {
-			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			packageInfos = zipFile.stream()
+					.parallel()
+					// Dont care about inner classes
+					.filter(entry -> entry.getName().endsWith(".class") && !entry.getName().contains("$"))
+					.filter(entry -> {
+						try (InputStream is = zipFile.getInputStream(entry)) {
+							return isPackageInfo(new ClassReader(is.readAllBytes()));
+						} catch (IOException e) {
+							throw new UncheckedIOException("Failed to read " + entry.getName(), e);
+						}
+					})
+					.map(entry -> entry.getName().replace(".class", ""))
+					.sorted()
+					.toList();
+		}
 
-			while (entries.hasMoreElements()) {
-				ZipEntry entry = entries.nextElement();
+		getProject().getLogger().info("Found {} package-info classes", packageInfos.size());
+		generateMappings(packageInfos);
+	}
 
-				if (entry.getName().endsWith(".class")) {
-					try (InputStream is = zipFile.getInputStream(entry)) {
-						processEntry(entry.getName(), is);
-					}
-				}
-			}
+	/**
+	 * Decides from the class file header alone, without visiting the class: only the access flags and
+	 * the interface, field and method counts are read, plus the class attributes when there are no members.
+	 */
+	private static boolean isPackageInfo(ClassReader reader) {
+		int offset = reader.header + 6;
+		int interfaces = reader.readUnsignedShort(offset);
+		offset += 2 + 2 * interfaces;
+		int fields = reader.readUnsignedShort(offset);
+		int methods = fields == 0 ? reader.readUnsignedShort(offset + 2) : -1;
+
+		if (interfaces > 0 || fields > 0 || methods > 0) {
+			// Nope cannot be a package-info
+			return false;
 		}
+
+		if (getAccess(reader, offset + 4) != (Opcodes.ACC_ABSTRACT | Opcodes.ACC_SYNTHETIC | Opcodes.ACC_INTERFACE)) {
+			// We only care about abstract synthetic interfaces, hopefully this is specific enough
+			return false;
+		}
+
+		return true;
 	}
 
-	private void processEntry(String name, InputStream inputStream) throws IOException {
-		name = name.replace(".class", "");
+	/**
+	 * The access flags as {@link ClassReader#accept} reports them, which also folds in the Synthetic,
+	 * Deprecated and Record attributes.
+	 */
+	private static int getAccess(ClassReader reader, int attributesOffset) {
+		int access = reader.getAccess();
+		char[] buf = new char[reader.getMaxStringLength()];
+		int count = reader.readUnsignedShort(attributesOffset);
+		int offset = attributesOffset + 2;
+
+		for (int i = 0; i < count; i++) {
+			String attributeName = reader.readUTF8(offset, buf);
+
+			if ("Synthetic".equals(attributeName)) {
+				access |= Opcodes.ACC_SYNTHETIC;
+			} else if ("Deprecated".equals(attributeName)) {
+				access |= Opcodes.ACC_DEPRECATED;
+			} else if ("Record".equals(attributeName)) {
+				access |= Opcodes.ACC_RECORD;
+			}
 
-		if (name.contains("$")) {
-			// Dont care about inner classes
-			return;
+			offset += 6 + reader.readInt(offset + 2);
 		}
 
-		ClassReader classReader = new ClassReader(inputStream);
-		ClassNode classNode = new ClassNode();
-		classReader.accept(classNode, 0);
+		return access;
+	}
 
-		if (classNode.access != (Opcodes.ACC_ABSTRACT | Opcodes.ACC_SYNTHETIC | Opcodes.ACC_INTERFACE)) {
-			// We only care about abstract synthetic interfaces, hopefully this is specific enough
-			return;
-		}
+	private void generateMappings(List<String> names) throws IOException {
+		File outputDirectory = outputDir.get().getAsFile();
+		outputDirectory.mkdirs();
 
-		if (classNode.methods.size() > 0 || classNode.fields.size() > 0 || classNode.interfaces.size() > 0) {
-			// Nope cannot be a package-info
-			return;
+		for (String name : names) {
+			generateMapping(outputDirectory, name);
 		}
-
-		generateMapping(name);
 	}
 
-	private void generateMapping(String name) throws IOException {
+	private void generateMapping(File outputDirectory, String name) throws IOException {
 		String inputName = name.substring(name.lastIndexOf("/") + 1);
 		String className = "PackageInfo" + name.substring(name.lastIndexOf("_") + 1);
 		String fullName = packageName.get() + className;
-		File mappingsFile = new File(outputDir.get().getAsFile(), className + ".mapping");
-
-		mappingsFile.getParentFile().mkdirs();
+		File mappingsFile = new File(outputDirectory, className + ".mapping");
 
 		try (PrintWriter writer = new PrintWriter(new FileWriter(mappingsFile))) {
 			writer.printf("CLASS net/minecraft/%s %s", inputName, fullName);
@@ -103,4 +143,3 @@ public class GeneratePackageInfoMappingsTask extends DefaultTask {
 		}
 	}
 }
-
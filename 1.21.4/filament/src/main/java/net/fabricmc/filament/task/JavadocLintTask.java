@@ -4,7 +4,6 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
 
 import javax.inject.Inject;
 
@@ -13,9 +12,6 @@ import cuchaz.enigma.translation.mapping.EntryMapping;
 import cuchaz.enigma.translation.mapping.serde.MappingParseException;
 import cuchaz.enigma.translation.mapping.serde.enigma.EnigmaMappingsReader;
 import cuchaz.enigma.translation.mapping.tree.EntryTree;
-import cuchaz.enigma.translation.representation.entry.Entry;
-import cuchaz.enigma.translation.representation.entry.LocalVariableEntry;
-import cuchaz.enigma.translation.representation.entry.MethodEntry;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.GradleException;
 import org.gradle.api.file.ConfigurableFileCollection;
@@ -34,10 +30,10 @@ import org.gradle.workers.WorkParameters;
 import org.gradle.workers.WorkQueue;
 import org.gradle.workers.WorkerExecutor;
 
+import net.fabricmc.filament.javadoclint.JavadocLinter;
 import net.fabricmc.filament.util.FileUtil;
 
 public abstract class JavadocLintTask extends DefaultTask {
-	private static final Pattern PARAM_DOC_LINE = Pattern.compile("^@param\\s+[^<].*$");
 	private final DirectoryProperty mappingDirectory = getProject().getObjects().directoryProperty();
 
 	@Incremental
@@ -75,29 +71,6 @@ public abstract class JavadocLintTask extends DefaultTask {
 		});
 	}
 
-	private static boolean isRegularMethodParameter(String line) {
-		return PARAM_DOC_LINE.matcher(line).matches();
-	}
-
-	private static String getFirstWord(String str) {
-		int i = str.indexOf(' ');
-		return i != -1 ? str.substring(0, i) : str;
-	}
-
-	private static String getFullName(EntryTree<EntryMapping> mappings, Entry<?> entry) {
-		String name = mappings.get(entry).targetName();
-
-		if (entry instanceof MethodEntry method) {
-			name += method.getDesc().toString();
-		}
-
-		if (entry.getParent() != null) {
-			name = getFullName(mappings, entry.getParent()) + '.' + name;
-		}
-
-		return name;
-	}
-
 	public interface LintParameters extends WorkParameters {
 		ConfigurableFileCollection getMappingFiles();
 	}
@@ -114,45 +87,7 @@ public abstract class JavadocLintTask extends DefaultTask {
 			try {
 				Path[] files = FileUtil.toPaths(getParameters().getMappingFiles().getFiles()).toArray(new Path[0]);
 				EntryTree<EntryMapping> mappings = EnigmaMappingsReader.readFiles(ProgressListener.none(), files);
-				List<String> errors = new ArrayList<>();
-
-				mappings.getAllEntries().parallel().forEach(entry -> {
-					EntryMapping mapping = mappings.get(entry);
-					String javadoc = mapping.javadoc();
-
-					if (javadoc != null && !javadoc.isEmpty()) {
-						List<String> localErrors = new ArrayList<>();
-
-						if (entry instanceof LocalVariableEntry && ((LocalVariableEntry) entry).isArgument()) {
-							if (javadoc.endsWith(".")) {
-								localErrors.add("parameter javadoc ends with '.'");
-							}
-
-							if (Character.isUpperCase(javadoc.charAt(0))) {
-								String word = getFirstWord(javadoc);
-
-								// ignore single-letter "words" (like X or Z)
-								if (word.length() > 1) {
-									localErrors.add("parameter javadoc starts with uppercase word '" + word + "'");
-								}
-							}
-						} else if (entry instanceof MethodEntry) {
-							if (javadoc.lines().anyMatch(JavadocLintTask::isRegularMethodParameter)) {
-								localErrors.add("method javadoc contains parameter docs, which should be on the parameter itself");
-							}
-						}
-
-						// new rules can be added here in the future
-
-						if (!localErrors.isEmpty()) {
-							String name = getFullName(mappings, entry);
-
-							for (String error : localErrors) {
-								errors.add(name + ": " + error);
-							}
-						}
-					}
-				});
+				List<String> errors = new JavadocLinter(JavadocLinter.defaultRules()).lint(mappings);
 
 				if (!errors.isEmpty()) {
 					for (String error : errors) {
@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 
@@ -19,17 +20,18 @@ import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.Classpath;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.TaskAction;
 import org.gradle.workers.WorkAction;
 import org.gradle.workers.WorkParameters;
 import org.gradle.workers.WorkQueue;
 import org.gradle.workers.WorkerExecutor;
 
+import net.fabricmc.filament.remap.RemapperService;
 import net.fabricmc.filament.task.base.WithFileInput;
 import net.fabricmc.filament.task.base.WithFileOutput;
 import net.fabricmc.tinyremapper.OutputConsumerPath;
 import net.fabricmc.tinyremapper.TinyRemapper;
-import net.fabricmc.tinyremapper.TinyUtils;
 
 public abstract class MapJarTask extends DefaultTask implements WithFileOutput, WithFileInput {
 	@InputFile public abstract RegularFileProperty getMappings();
@@ -37,6 +39,7 @@ public abstract class MapJarTask extends DefaultTask implements WithFileOutput,
 	@Input public abstract Property<String> getFrom();
 	@Input public abstract Property<String> getTo();
 	@Input public abstract MapProperty<String, String> getClassMappings();
+	@Internal public abstract Property<RemapperService> getRemapperService();
 
 	@Inject
 	protected abstract WorkerExecutor getWorkerExecutor();
@@ -56,6 +59,7 @@ public abstract class MapJarTask extends DefaultTask implements WithFileOutput,
 			parameters.getFrom().set(getFrom());
 			parameters.getTo().set(getTo());
 			parameters.getClassMappings().set(getClassMappings());
+			parameters.getRemapperService().set(getRemapperService());
 		});
 	}
 
@@ -67,6 +71,7 @@ public abstract class MapJarTask extends DefaultTask implements WithFileOutput,
 		Property<String> getFrom();
 		Property<String> getTo();
 		MapProperty<String, String> getClassMappings();
+		Property<RemapperService> getRemapperService();
 	}
 
 	public abstract static class RemapAction implements WorkAction<RemapParameters> {
@@ -88,8 +93,9 @@ public abstract class MapJarTask extends DefaultTask implements WithFileOutput,
 			Path output = getPath(params.getOutput());
 			Files.deleteIfExists(output);
 
+			RemapperService service = params.getRemapperService().get();
 			TinyRemapper.Builder remapperBuilder = TinyRemapper.newRemapper()
-					.withMappings(TinyUtils.createTinyMappingProvider(getPath(params.getMappings()), params.getFrom().get(), params.getTo().get()))
+					.withMappings(service.getMappings(getPath(params.getMappings()), params.getFrom().get(), params.getTo().get()))
 					.renameInvalidLocals(true)
 					.rebuildSourceFilenames(true)
 					.invalidLvNamePattern(Pattern.compile("\\$\\$\\d+"))
@@ -102,8 +108,10 @@ public abstract class MapJarTask extends DefaultTask implements WithFileOutput,
 				outputConsumer.addNonClassFiles(input);
 				remapper.readInputsAsync(input);
 
-				for (File file : params.getClasspath().getFiles()) {
-					remapper.readClassPathAsync(file.toPath());
+				List<Path> classpath = params.getClasspath().getFiles().stream().map(File::toPath).toList();
+
+				for (Path file : service.getClasspath(classpath)) {
+					remapper.readClassPathAsync(file);
 				}
 
 				remapper.apply(outputConsumer);
@@ -2,18 +2,21 @@ package net.fabricmc.filament.task;
 
 import java.io.File;
 
-import org.gradle.api.DefaultTask;
+import javax.inject.Inject;
+
 import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.tasks.InputFile;
 import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.OutputDirectory;
 import org.gradle.api.tasks.TaskAction;
 
 import net.fabricmc.filament.mappingpoet.MappingPoet;
+import net.fabricmc.filament.task.base.FilamentTask;
 
-public abstract class MappingPoetTask extends DefaultTask {
+public abstract class MappingPoetTask extends FilamentTask {
 	@InputFile
 	public abstract RegularFileProperty getMappings();
 	@InputFile
@@ -22,6 +25,13 @@ public abstract class MappingPoetTask extends DefaultTask {
 	public abstract ConfigurableFileCollection getLibraries();
 	@OutputDirectory
 	public abstract DirectoryProperty getOutput();
+	@Internal
+	public abstract DirectoryProperty getCacheDirectory();
+
+	@Inject
+	public MappingPoetTask() {
+		getCacheDirectory().convention(getExtension().getCacheDirectory().dir("mappingpoet"));
+	}
 
 	@TaskAction
 	public void run() {
@@ -29,7 +39,8 @@ public abstract class MappingPoetTask extends DefaultTask {
 				getMappings().get().getAsFile().toPath(),
 				getMinecraftJar().get().getAsFile().toPath(),
 				getOutput().get().getAsFile().toPath(),
-				getLibraries().getFiles().stream().map(File::toPath).toList()
+				getLibraries().getFiles().stream().map(File::toPath).toList(),
+				getCacheDirectory().get().getAsFile().toPath()
 		);
 	}
 }
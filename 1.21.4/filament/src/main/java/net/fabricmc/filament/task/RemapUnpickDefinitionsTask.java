@@ -4,14 +4,9 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
 
 import javax.inject.Inject;
 
-import daomephsta.unpick.constantmappers.datadriven.parser.FieldKey;
-import daomephsta.unpick.constantmappers.datadriven.parser.MethodKey;
 import daomephsta.unpick.constantmappers.datadriven.parser.v2.UnpickV2Reader;
 import daomephsta.unpick.constantmappers.datadriven.parser.v2.UnpickV2Remapper;
 import daomephsta.unpick.constantmappers.datadriven.parser.v2.UnpickV2Writer;
@@ -27,11 +22,9 @@ import org.gradle.workers.WorkParameters;
 import org.gradle.workers.WorkQueue;
 import org.gradle.workers.WorkerExecutor;
 
+import net.fabricmc.filament.unpick.UnpickMappings;
 import net.fabricmc.filament.util.FileUtil;
 import net.fabricmc.filament.util.UnpickUtil;
-import net.fabricmc.mappingio.MappingReader;
-import net.fabricmc.mappingio.tree.MappingTree;
-import net.fabricmc.mappingio.tree.MemoryMappingTree;
 
 public abstract class RemapUnpickDefinitionsTask extends DefaultTask {
 	@InputFile
@@ -92,53 +85,16 @@ public abstract class RemapUnpickDefinitionsTask extends DefaultTask {
 				File output = getParameters().getOutput().getAsFile().get();
 				FileUtil.deleteIfExists(output);
 
-				Map<String, String> classMappings = new HashMap<>();
-				Map<MethodKey, String> methodMappings = new HashMap<>();
-				Map<FieldKey, String> fieldMappings = new HashMap<>();
-
-				final MemoryMappingTree mappingTree = new MemoryMappingTree();
-				MappingReader.read(getParameters().getMappings().getAsFile().get().toPath(), mappingTree);
-
-				final int fromM = mappingTree.getNamespaceId(getParameters().getSourceNamespace().get());
-				final int toM = mappingTree.getNamespaceId(getParameters().getTargetNamespace().get());
-
-				for (MappingTree.ClassMapping classDef : mappingTree.getClasses()) {
-					final String classFromName = classDef.getName(fromM);
-
-					if (classFromName == null) {
-						continue;
-					}
-
-					classMappings.put(
-							classFromName,
-							Objects.requireNonNull(classDef.getName(toM), "Null to name: " + classFromName)
-					);
-
-					for (MappingTree.MethodMapping methodDef : classDef.getMethods()) {
-						methodMappings.put(
-								new MethodKey(
-										Objects.requireNonNull(classFromName, "Null dst name: " + classDef.getSrcName()),
-										Objects.requireNonNull(methodDef.getName(fromM), "Null dst name: " + methodDef.getSrcName()),
-										Objects.requireNonNull(methodDef.getDesc(fromM), "Null dst name: " + methodDef.getSrcName())
-								),
-								Objects.requireNonNull(methodDef.getName(toM), "Null to name: " + methodDef.getSrcName())
-						);
-					}
-
-					for (MappingTree.FieldMapping fieldDef : classDef.getFields()) {
-						fieldMappings.put(
-								new FieldKey(
-										Objects.requireNonNull(classFromName, "Null dst name: " + classDef.getSrcName()),
-										Objects.requireNonNull(fieldDef.getName(fromM), "Null dst name: " + fieldDef.getSrcName())
-								),
-								Objects.requireNonNull(fieldDef.getName(toM), "Null to name: " + fieldDef.getSrcName())
-						);
-					}
-				}
+				UnpickMappings mappings = UnpickMappings.read(
+						getParameters().getInput().getAsFile().get().toPath(),
+						getParameters().getMappings().getAsFile().get().toPath(),
+						getParameters().getSourceNamespace().get(),
+						getParameters().getTargetNamespace().get()
+				);
 
 				try (UnpickV2Reader reader = new UnpickV2Reader(new FileInputStream(getParameters().getInput().getAsFile().get()))) {
 					UnpickV2Writer writer = new UnpickV2Writer();
-					reader.accept(new UnpickV2Remapper(classMappings, methodMappings, fieldMappings, writer));
+					reader.accept(new UnpickV2Remapper(mappings.classes(), mappings.methods(), mappings.fields(), writer));
 					FileUtil.write(output, UnpickUtil.getLfOutput(writer));
 				}
 			} catch (IOException e) {
@@ -2,25 +2,22 @@ package net.fabricmc.filament.task;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.List;
 
-import javax.inject.Inject;
-
-import daomephsta.unpick.cli.Main;
 import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.InputFile;
 import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.TaskAction;
-import org.gradle.workers.WorkAction;
-import org.gradle.workers.WorkParameters;
-import org.gradle.workers.WorkQueue;
-import org.gradle.workers.WorkerExecutor;
 
 import net.fabricmc.filament.task.base.FilamentTask;
 import net.fabricmc.filament.task.base.WithFileInput;
 import net.fabricmc.filament.task.base.WithFileOutput;
+import net.fabricmc.filament.unpick.UnpickEngine;
+import net.fabricmc.filament.unpick.UnpickService;
 
 public abstract class UnpickJarTask extends FilamentTask implements WithFileInput, WithFileOutput {
 	@InputFile
@@ -30,51 +27,17 @@ public abstract class UnpickJarTask extends FilamentTask implements WithFileInpu
 	@InputFiles
 	public abstract ConfigurableFileCollection getClasspath();
 
-	@Inject
-	protected abstract WorkerExecutor getWorkerExecutor();
+	@Internal
+	public abstract Property<UnpickService> getUnpickService();
 
 	@TaskAction
-	public void run() {
-		WorkQueue workQueue = getWorkerExecutor().noIsolation();
-		workQueue.submit(UnpickAction.class, parameters -> {
-			parameters.getInput().set(getInput());
-			parameters.getOutput().set(getOutput());
-			parameters.getUnpickDefinition().set(getUnpickDefinition());
-			parameters.getConstantJar().set(getConstantsJarFile());
-			parameters.getClasspath().from(getClasspath());
-		});
-	}
-
-	public interface UnpickParameters extends WorkParameters {
-		RegularFileProperty getInput();
-		RegularFileProperty getOutput();
-		RegularFileProperty getUnpickDefinition();
-		RegularFileProperty getConstantJar();
-		ConfigurableFileCollection getClasspath();
+	public void run() throws IOException {
+		List<Path> classpath = getClasspath().getFiles().stream().map(File::toPath).toList();
+		UnpickEngine engine = getUnpickService().get().getEngine(getPath(getUnpickDefinition()), getPath(getConstantsJarFile()), classpath);
+		engine.unpick(getPath(getInput()), getPath(getOutput()));
 	}
 
-	public abstract static class UnpickAction implements WorkAction<UnpickParameters> {
-		@Override
-		public void execute() {
-			List<String> args = new ArrayList<>();
-			args.add(getPath(getParameters().getInput()));
-			args.add(getPath(getParameters().getOutput()));
-			args.add(getPath(getParameters().getUnpickDefinition()));
-			args.add(getPath(getParameters().getConstantJar()));
-
-			for (File file : getParameters().getClasspath().getFiles()) {
-				args.add(file.getAbsolutePath());
-			}
-
-			try {
-				Main.main(args.toArray(String[]::new));
-			} catch (IOException e) {
-				throw new RuntimeException(e);
-			}
-		}
-
-		private String getPath(RegularFileProperty fileProperty) {
-			return fileProperty.get().getAsFile().getAbsolutePath();
-		}
+	private static Path getPath(RegularFileProperty fileProperty) {
+		return fileProperty.get().getAsFile().toPath();
 	}
 }
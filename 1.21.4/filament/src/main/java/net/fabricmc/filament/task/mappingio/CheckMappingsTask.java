@@ -1,15 +1,33 @@
 package net.fabricmc.filament.task.mappingio;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import javax.inject.Inject;
 
 import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileType;
+import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.ChangeType;
+import org.gradle.work.FileChange;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,109 +35,87 @@ import org.slf4j.LoggerFactory;
 import net.fabricmc.mappingio.MappedElementKind;
 import net.fabricmc.mappingio.MappingVisitor;
 import net.fabricmc.mappingio.MappingReader;
+import net.fabricmc.mappingio.format.MappingFormat;
 import net.fabricmc.filament.task.base.FilamentTask;
 
+/**
+ * Checks the Enigma mapping directory for duplicate and unchanged mappings.
+ *
+ * <p>Everything but duplicate classes can be checked per file, so the classes and errors of each file are
+ * kept in a cache and only files that changed since the last run are read again.
+ */
 public abstract class CheckMappingsTask extends FilamentTask {
 	private static final Logger LOGGER = LoggerFactory.getLogger(CheckMappingsTask.class);
+	private static final String MAPPING_EXTENSION = ".mapping";
 
+	@Incremental
 	@InputDirectory
 	abstract DirectoryProperty getInput();
 
-	@TaskAction
-	public final void run() throws IOException {
-		Path path = getInput().get().getAsFile().toPath();
-		List<String> errors = new ArrayList<>();
+	@Internal
+	public abstract RegularFileProperty getCacheFile();
 
-		MappingReader.read(path, new MappingVisitor() {
-			private final Set<String> classes = new HashSet<>();
-			private final Set<String> members = new HashSet<>();
-			private final Set<Integer> argLvIndices = new HashSet<>();
-			private String clsSrcName;
-			private String memberSrcName;
-			private String memberId;
+	@Inject
+	public CheckMappingsTask() {
+		// Ignore outputs for up-to-date checks as there aren't any (so only inputs are checked)
+		getOutputs().upToDateWhen(task -> true);
+		getCacheFile().convention(getExtension().getCacheDirectory().file("checks/" + getName() + ".txt"));
+	}
 
-			@Override
-			public void visitNamespaces(String srcNamespace, List<String> dstNamespaces) throws IOException {
-			}
+	@TaskAction
+	public final void run(InputChanges changes) throws IOException {
+		Path root = getInput().get().getAsFile().toPath();
+		Path cacheFile = getCacheFile().get().getAsFile().toPath();
+		Map<String, FileResult> results = changes.isIncremental() ? readCache(cacheFile) : null;
+		List<Path> toCheck = new ArrayList<>();
 
-			@Override
-			public boolean visitClass(String srcName) throws IOException {
-				if (classes.contains(srcName)) {
-					errors.add("Duplicate class mapping for " + srcName);
-				} else {
-					classes.add(srcName);
-				}
+		if (results == null) {
+			results = new TreeMap<>();
 
-				members.clear();
-				clsSrcName = srcName;
-				return true;
+			try (Stream<Path> files = Files.walk(root)) {
+				files.filter(file -> Files.isRegularFile(file) && isMappingFile(file)).forEach(toCheck::add);
 			}
+		} else {
+			for (FileChange change : changes.getFileChanges(getInput())) {
+				Path file = change.getFile().toPath();
 
-			@Override
-			public boolean visitField(String srcName, @Nullable String srcDesc) throws IOException {
-				memberId = srcName + ":" + srcDesc;
+				if (change.getFileType() == FileType.DIRECTORY || !isMappingFile(file)) {
+					continue;
+				}
 
-				if (members.contains(memberId)) {
-					errors.add("Duplicate field mapping for " + clsSrcName + "#" + memberId);
+				if (change.getChangeType() == ChangeType.REMOVED) {
+					results.remove(relativize(root, file));
 				} else {
-					members.add(memberId);
+					toCheck.add(file);
 				}
-
-				memberSrcName = srcName;
-				return true;
 			}
+		}
 
-			@Override
-			public boolean visitMethod(String srcName, @Nullable String srcDesc) throws IOException {
-				memberId = srcName + srcDesc;
-
-				if (members.contains(memberId)) {
-					errors.add("Duplicate method mapping for " + clsSrcName + "#" + memberId);
-				} else {
-					members.add(memberId);
-				}
+		LOGGER.info("Checking {} changed mapping files", toCheck.size());
 
-				argLvIndices.clear();
-				memberSrcName = srcName;
-				return true;
-			}
+		Map<String, FileResult> checked = new HashMap<>();
+		toCheck.parallelStream()
+				.map(file -> Map.entry(relativize(root, file), checkFile(file)))
+				.toList()
+				.forEach(entry -> checked.put(entry.getKey(), entry.getValue()));
+		results.putAll(checked);
 
-			@Override
-			public boolean visitMethodArg(int argPosition, int lvIndex, @Nullable String srcName) throws IOException {
-				if (argLvIndices.contains(lvIndex)) {
-					errors.add("Duplicate parameter mapping for " + clsSrcName + "#" + memberId + ", slot " + lvIndex);
-				}
+		writeCache(cacheFile, results);
 
-				argLvIndices.add(lvIndex);
-				return true;
-			}
+		List<String> errors = new ArrayList<>();
+		Map<String, Integer> classCounts = new LinkedHashMap<>();
 
-			@Override
-			public boolean visitMethodVar(int lvtRowIndex, int lvIndex, int startOpIdx, int endOpIdx, @Nullable String srcName) throws IOException {
-				throw new UnsupportedOperationException();
-			}
+		for (FileResult result : results.values()) {
+			errors.addAll(result.errors());
 
-			@Override
-			public void visitDstName(MappedElementKind targetKind, int namespace, String name) throws IOException {
-				switch (targetKind) {
-					case CLASS:
-						if (clsSrcName.equals(name)) {
-							errors.add("Same name in both namespaces for class " + clsSrcName);
-						}
-
-						break;
-					case FIELD:
-					case METHOD:
-						if (memberSrcName.equals(name) && (name.startsWith("method_") || name.startsWith("field_"))) {
-							errors.add("Same name in both namespaces for member " + clsSrcName + "#" + memberId);
-						}
-
-						break;
-				}
+			for (String cls : result.classes()) {
+				classCounts.merge(cls, 1, Integer::sum);
 			}
+		}
 
-			@Override
-			public void visitComment(MappedElementKind mappedElementKind, String comment) throws IOException {
+		classCounts.forEach((cls, count) -> {
+			for (int i = 1; i < count; i++) {
+				errors.add("Duplicate class mapping for " + cls);
 			}
 		});
 
@@ -133,4 +129,179 @@ public abstract class CheckMappingsTask extends FilamentTask {
 
 		throw new RuntimeException("Duplicate mappings detected");
 	}
+
+	private static boolean isMappingFile(Path file) {
+		return file.getFileName().toString().endsWith(MAPPING_EXTENSION);
+	}
+
+	private static String relativize(Path root, Path file) {
+		return root.relativize(file).toString().replace('\\', '/');
+	}
+
+	private static FileResult checkFile(Path file) {
+		FileChecker checker = new FileChecker();
+
+		try {
+			MappingReader.read(file, MappingFormat.ENIGMA_FILE, checker);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to read " + file, e);
+		}
+
+		return new FileResult(checker.classes, checker.errors);
+	}
+
+	/**
+	 * Reads the check cache, made of a {@code F} line per file followed by its {@code C} (class) and {@code E} (error) lines.
+	 *
+	 * @return the results by relative file path, or null if there is no usable cache
+	 */
+	private static Map<String, FileResult> readCache(Path cacheFile) throws IOException {
+		if (!Files.exists(cacheFile)) {
+			return null;
+		}
+
+		Map<String, FileResult> results = new TreeMap<>();
+		FileResult current = null;
+
+		for (String line : Files.readAllLines(cacheFile, StandardCharsets.UTF_8)) {
+			if (line.length() < 2 || line.charAt(1) != '\t') {
+				return null;
+			}
+
+			String value = line.substring(2);
+
+			switch (line.charAt(0)) {
+			case 'F':
+				current = new FileResult(new ArrayList<>(), new ArrayList<>());
+				results.put(value, current);
+				break;
+			case 'C':
+				if (current == null) return null;
+				current.classes().add(value);
+				break;
+			case 'E':
+				if (current == null) return null;
+				current.errors().add(value);
+				break;
+			default:
+				return null;
+			}
+		}
+
+		return results;
+	}
+
+	private static void writeCache(Path cacheFile, Map<String, FileResult> results) throws IOException {
+		Files.createDirectories(cacheFile.getParent());
+
+		try (BufferedWriter writer = Files.newBufferedWriter(cacheFile, StandardCharsets.UTF_8)) {
+			for (Map.Entry<String, FileResult> entry : results.entrySet()) {
+				writer.write("F\t" + entry.getKey() + "\n");
+
+				for (String cls : entry.getValue().classes()) {
+					writer.write("C\t" + cls + "\n");
+				}
+
+				for (String error : entry.getValue().errors()) {
+					writer.write("E\t" + error + "\n");
+				}
+			}
+		}
+	}
+
+	private record FileResult(List<String> classes, List<String> errors) {
+	}
+
+	private record MemberKey(String name, String desc, boolean field) {
+	}
+
+	private static final class FileChecker implements MappingVisitor {
+		private final List<String> classes = new ArrayList<>();
+		private final List<String> errors = new ArrayList<>();
+		private final Set<MemberKey> members = new HashSet<>();
+		private final Set<Integer> argLvIndices = new HashSet<>();
+		private String clsSrcName;
+		private String memberSrcName;
+		private String memberSrcDesc;
+		private boolean field;
+
+		@Override
+		public void visitNamespaces(String srcNamespace, List<String> dstNamespaces) throws IOException {
+		}
+
+		@Override
+		public boolean visitClass(String srcName) throws IOException {
+			// duplicates across files are found once all files have been checked
+			classes.add(srcName);
+
+			members.clear();
+			clsSrcName = srcName;
+			return true;
+		}
+
+		@Override
+		public boolean visitField(String srcName, @Nullable String srcDesc) throws IOException {
+			visitMember(srcName, srcDesc, true);
+			return true;
+		}
+
+		@Override
+		public boolean visitMethod(String srcName, @Nullable String srcDesc) throws IOException {
+			visitMember(srcName, srcDesc, false);
+			argLvIndices.clear();
+			return true;
+		}
+
+		private void visitMember(String srcName, @Nullable String srcDesc, boolean field) {
+			memberSrcName = srcName;
+			memberSrcDesc = srcDesc;
+			this.field = field;
+
+			if (!members.add(new MemberKey(srcName, srcDesc, field))) {
+				errors.add("Duplicate " + (field ? "field" : "method") + " mapping for " + clsSrcName + "#" + getMemberId());
+			}
+		}
+
+		// only built for error messages
+		private String getMemberId() {
+			return field ? memberSrcName + ":" + memberSrcDesc : memberSrcName + memberSrcDesc;
+		}
+
+		@Override
+		public boolean visitMethodArg(int argPosition, int lvIndex, @Nullable String srcName) throws IOException {
+			if (!argLvIndices.add(lvIndex)) {
+				errors.add("Duplicate parameter mapping for " + clsSrcName + "#" + getMemberId() + ", slot " + lvIndex);
+			}
+
+			return true;
+		}
+
+		@Override
+		public boolean visitMethodVar(int lvtRowIndex, int lvIndex, int startOpIdx, int endOpIdx, @Nullable String srcName) throws IOException {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void visitDstName(MappedElementKind targetKind, int namespace, String name) throws IOException {
+			switch (targetKind) {
+				case CLASS:
+					if (clsSrcName.equals(name)) {
+						errors.add("Same name in both namespaces for class " + clsSrcName);
+					}
+
+					break;
+				case FIELD:
+				case METHOD:
+					if (memberSrcName.equals(name) && (name.startsWith("method_") || name.startsWith("field_"))) {
+						errors.add("Same name in both namespaces for member " + clsSrcName + "#" + getMemberId());
+					}
+
+					break;
+			}
+		}
+
+		@Override
+		public void visitComment(MappedElementKind mappedElementKind, String comment) throws IOException {
+		}
+	}
 }
@@ -7,6 +7,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import javax.inject.Inject;
+
 import org.gradle.api.tasks.TaskAction;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -21,6 +23,13 @@ import net.fabricmc.mappingio.MappingVisitor;
 public abstract class CheckMergedMappingsTask extends FilamentTask implements WithFileInput {
 	private static final Logger LOGGER = LoggerFactory.getLogger(CheckMergedMappingsTask.class);
 
+	@Inject
+	public CheckMergedMappingsTask() {
+		// The merged file is checked as a whole, so skip the check while it is unchanged.
+		// Ignore outputs for up-to-date checks as there aren't any (so only inputs are checked)
+		getOutputs().upToDateWhen(task -> true);
+	}
+
 	@TaskAction
 	public final void run() throws IOException {
 		Path path = getInput().get().getAsFile().toPath();
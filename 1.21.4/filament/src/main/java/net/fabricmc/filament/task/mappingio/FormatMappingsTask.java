@@ -1,22 +1,53 @@
 package net.fabricmc.filament.task.mappingio;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileType;
 import org.gradle.api.tasks.InputDirectory;
 import org.gradle.api.tasks.OutputDirectory;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.ChangeType;
+import org.gradle.work.FileChange;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import net.fabricmc.filament.task.base.FilamentTask;
+import net.fabricmc.filament.util.FileUtil;
 import net.fabricmc.mappingio.MappingReader;
 import net.fabricmc.mappingio.MappingWriter;
 import net.fabricmc.mappingio.format.MappingFormat;
 import net.fabricmc.mappingio.tree.MemoryMappingTree;
 import net.fabricmc.mappingio.tree.VisitOrder;
 
+/**
+ * Rewrites the Enigma mapping directory in its canonical, name ordered form.
+ *
+ * <p>Mappings are formatted into the task's temporary directory first and only files whose formatted bytes
+ * differ are written back, so unchanged files keep their timestamps. Incremental runs only format the files
+ * that changed since the last run.
+ */
 public abstract class FormatMappingsTask extends FilamentTask {
+	private static final Logger LOGGER = LoggerFactory.getLogger(FormatMappingsTask.class);
+	private static final String MAPPING_EXTENSION = ".mapping";
+
+	@Incremental
 	@InputDirectory
 	public abstract DirectoryProperty getInput();
 
@@ -28,14 +59,171 @@ public abstract class FormatMappingsTask extends FilamentTask {
 	}
 
 	@TaskAction
-	void run() throws IOException {
-		Path path = getInput().get().getAsFile().toPath();
+	void run(InputChanges changes) throws IOException {
+		Path root = getInput().get().getAsFile().toPath();
+		Path temp = getTemporaryDir().toPath();
+		clearDirectory(temp);
+
+		if (!changes.isIncremental() || !formatChanged(root, temp, changes)) {
+			formatAll(root, temp);
+		}
+	}
+
+	/**
+	 * Formats each changed file on its own.
+	 *
+	 * @return false if the changed files can't be formatted in isolation, i.e. when a class was renamed
+	 * onto another mapping file and the two have to be merged by a full format
+	 */
+	private boolean formatChanged(Path root, Path temp, InputChanges changes) throws IOException {
+		List<Path> changed = new ArrayList<>();
+
+		for (FileChange change : changes.getFileChanges(getInput())) {
+			Path file = change.getFile().toPath();
+
+			if (change.getChangeType() != ChangeType.REMOVED && change.getFileType() == FileType.FILE && isMappingFile(file)) {
+				changed.add(file);
+			}
+		}
+
+		if (changed.isEmpty()) {
+			return true;
+		}
+
+		List<Path> formatted = IntStream.range(0, changed.size())
+				.parallel()
+				.mapToObj(i -> {
+					Path output = temp.resolve(Integer.toString(i));
+
+					try {
+						format(changed.get(i), MappingFormat.ENIGMA_FILE, output);
+					} catch (IOException e) {
+						throw new UncheckedIOException("Failed to format " + changed.get(i), e);
+					}
+
+					return output;
+				})
+				.toList();
+
+		// Relative target path -> formatted file, checking that no target is claimed twice
+		Map<String, Path> targets = new HashMap<>();
 
-		MappingWriter writer = MappingWriter.create(path, MappingFormat.ENIGMA_DIR);
-		Objects.requireNonNull(writer, "writer");
+		for (int i = 0; i < changed.size(); i++) {
+			for (String target : listMappingFiles(formatted.get(i))) {
+				Path existing = root.resolve(target);
+				boolean foreign = Files.exists(existing) && !changed.contains(existing);
+
+				if (foreign || targets.put(target, formatted.get(i).resolve(target)) != null) {
+					LOGGER.info("Mappings for {} moved onto an existing file, formatting all mappings", target);
+					return false;
+				}
+			}
+		}
+
+		LOGGER.info("Formatting {} changed mapping files", changed.size());
+
+		for (Map.Entry<String, Path> entry : targets.entrySet()) {
+			copyIfChanged(entry.getValue(), root.resolve(entry.getKey()));
+		}
+
+		for (Path file : changed) {
+			if (!targets.containsKey(relativize(root, file))) {
+				delete(root, file);
+			}
+		}
+
+		return true;
+	}
+
+	private void formatAll(Path root, Path temp) throws IOException {
+		Path output = temp.resolve("all");
+		format(root, MappingFormat.ENIGMA_DIR, output);
+
+		Set<String> targets = listMappingFiles(output);
+
+		for (String target : targets) {
+			copyIfChanged(output.resolve(target), root.resolve(target));
+		}
+
+		for (String existing : listMappingFiles(root)) {
+			if (!targets.contains(existing)) {
+				delete(root, root.resolve(existing));
+			}
+		}
+	}
 
+	private static void format(Path input, MappingFormat format, Path output) throws IOException {
 		MemoryMappingTree tree = new MemoryMappingTree();
-		MappingReader.read(path, MappingFormat.ENIGMA_DIR, tree);
-		tree.accept(writer, VisitOrder.createByName());
+		MappingReader.read(input, format, tree);
+
+		try (MappingWriter writer = Objects.requireNonNull(MappingWriter.create(output, MappingFormat.ENIGMA_DIR), "writer")) {
+			tree.accept(writer, VisitOrder.createByName());
+		}
+	}
+
+	private static void copyIfChanged(Path formatted, Path target) throws IOException {
+		byte[] bytes = Files.readAllBytes(formatted);
+
+		if (Files.exists(target) && Arrays.equals(bytes, Files.readAllBytes(target))) {
+			return;
+		}
+
+		Files.createDirectories(target.getParent());
+		Files.write(target, bytes);
+	}
+
+	/**
+	 * Deletes a mapping file that is no longer written, along with any directories left empty by it.
+	 */
+	private static void delete(Path root, Path file) throws IOException {
+		Files.delete(file);
+
+		for (Path dir = file.getParent(); !dir.equals(root); dir = dir.getParent()) {
+			try (Stream<Path> children = Files.list(dir)) {
+				if (children.findAny().isPresent()) {
+					break;
+				}
+			}
+
+			Files.delete(dir);
+		}
+	}
+
+	private static Set<String> listMappingFiles(Path dir) throws IOException {
+		Set<String> ret = new TreeSet<>();
+
+		if (!Files.isDirectory(dir)) {
+			return ret;
+		}
+
+		try (Stream<Path> files = Files.walk(dir)) {
+			files.filter(file -> Files.isRegularFile(file) && isMappingFile(file)).forEach(file -> ret.add(relativize(dir, file)));
+		}
+
+		return ret;
+	}
+
+	private static void clearDirectory(Path dir) throws IOException {
+		File[] children = dir.toFile().listFiles();
+
+		if (children == null) {
+			return;
+		}
+
+		for (File child : children) {
+			if (child.isDirectory()) {
+				FileUtil.deleteDirectory(child);
+			} else {
+				FileUtil.deleteIfExists(child);
+			}
+		}
+	}
+
+	private static boolean isMappingFile(Path file) {
+		return file.getFileName().toString().endsWith(MAPPING_EXTENSION);
+	}
+
+	private static String relativize(Path root, Path file) {
+		return root.relativize(file).toString().replace('\\', '/');
 	}
 }
@@ -3,22 +3,62 @@ package net.fabricmc.filament.task.minecraft;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 
+import javax.inject.Inject;
+
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.TaskAction;
 
 import net.fabricmc.filament.task.base.FilamentTask;
 import net.fabricmc.filament.task.base.WithFileInput;
 import net.fabricmc.filament.task.base.WithFileOutput;
+import net.fabricmc.filament.util.ArtifactCache;
 import net.fabricmc.loom.util.FileSystemUtil;
 
 public abstract class ExtractBundledServerTask extends FilamentTask implements WithFileOutput, WithFileInput {
+	/**
+	 * Part of the artifact cache key, to be bumped whenever the extracted output changes for the same input.
+	 */
+	private static final int CACHE_VERSION = 1;
+
+	/**
+	 * The SHA-1 of the server bundle as published by Mojang. If set, the extracted jar is stored in the
+	 * artifact cache under it.
+	 */
+	@Input
+	@Optional
+	public abstract Property<String> getSha1();
+
+	@Internal
+	public abstract DirectoryProperty getArtifactCacheDirectory();
+
+	@Inject
+	public ExtractBundledServerTask() {
+		getArtifactCacheDirectory().convention(getExtension().getArtifactCacheDirectory());
+	}
+
 	@TaskAction
 	public void run() throws IOException {
+		if (getSha1().getOrElse("").isEmpty()) {
+			extract(getOutputPath());
+			return;
+		}
+
+		String key = "server/v" + CACHE_VERSION + "/" + getSha1().get() + ".jar";
+		ArtifactCache.copyOrProduce(getArtifactCacheDirectory().get().getAsFile().toPath(), key, getOutputPath(), this::extract);
+	}
+
+	private void extract(Path output) throws IOException {
 		try (FileSystemUtil.Delegate fs = FileSystemUtil.getJarFileSystem(getInputPath(), false)) {
 			String versionsList = new String(fs.readAllBytes("META-INF/versions.list"), StandardCharsets.UTF_8);
 			String jarPath = "META-INF/versions/" + versionsList.split("\t")[2];
-			Files.copy(fs.getPath(jarPath), getOutputPath(), StandardCopyOption.REPLACE_EXISTING);
+			Files.copy(fs.getPath(jarPath), output, StandardCopyOption.REPLACE_EXISTING);
 		}
 	}
 }
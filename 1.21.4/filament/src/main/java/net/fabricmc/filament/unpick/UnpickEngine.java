@@ -0,0 +1,137 @@
+package net.fabricmc.filament.unpick;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+
+import daomephsta.unpick.api.ConstantUninliner;
+import daomephsta.unpick.api.classresolvers.ChainClassResolver;
+import daomephsta.unpick.api.classresolvers.ClasspathClassResolver;
+import daomephsta.unpick.api.classresolvers.IClassResolver;
+import daomephsta.unpick.api.constantmappers.ConstantMappers;
+import daomephsta.unpick.api.constantresolvers.ConstantResolvers;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.ClassNode;
+
+/**
+ * Runs unpick through its library API, for any number of jars against the same definitions and constants.
+ *
+ * <p>The definition file's bytes are loaded and the constants jar and classpath are opened once, when the engine is
+ * created. Classes of a jar are transformed in parallel and written to the output jar in their original order.
+ * Unpick's constant mapper and resolver cache what they resolve without synchronization and have to see the
+ * classes of the jar being transformed, so the definitions are parsed into a new uninliner for each thread
+ * working on a jar at the same time. These uninliners are pooled for the duration of a single call only.
+ */
+public final class UnpickEngine implements Closeable {
+	private final byte[] definitions;
+	private final URLClassLoader classpathLoader;
+	private final IClassResolver classpathResolver;
+
+	public UnpickEngine(Path definitions, Path constantsJar, List<Path> classpath) throws IOException {
+		this.definitions = Files.readAllBytes(definitions);
+
+		List<Path> paths = new ArrayList<>(classpath.size() + 1);
+		paths.add(constantsJar);
+		paths.addAll(classpath);
+		this.classpathLoader = new URLClassLoader(toUrls(paths), null);
+		this.classpathResolver = new ClasspathClassResolver(classpathLoader);
+	}
+
+	public void unpick(Path input, Path output) throws IOException {
+		Files.deleteIfExists(output);
+
+		try (URLClassLoader inputLoader = new URLClassLoader(toUrls(List.of(input)), null);
+				JarFile inputJar = new JarFile(input.toFile());
+				JarOutputStream outputJar = new JarOutputStream(Files.newOutputStream(output))) {
+			// classes of the jar itself take precedence over the classpath
+			IClassResolver resolver = new ChainClassResolver(new ClasspathClassResolver(inputLoader), classpathResolver);
+			// dropped with the call, as they refer to the input jar's class loader
+			Queue<ConstantUninliner> uninliners = new ConcurrentLinkedQueue<>();
+
+			inputJar.stream()
+					.parallel()
+					.map(entry -> new Output(entry, transform(inputJar, entry, uninliners, resolver)))
+					.forEachOrdered(result -> {
+						try {
+							outputJar.putNextEntry(new JarEntry(result.entry().getName()));
+							outputJar.write(result.bytes());
+							outputJar.closeEntry();
+						} catch (IOException e) {
+							throw new UncheckedIOException("Failed to write " + result.entry().getName(), e);
+						}
+					});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private ConstantUninliner createUninliner(IClassResolver resolver) {
+		InputStream definitionsStream = new ByteArrayInputStream(definitions);
+		return new ConstantUninliner(ConstantMappers.dataDriven(resolver, definitionsStream), ConstantResolvers.bytecodeAnalysis(resolver));
+	}
+
+	private byte[] transform(JarFile jar, JarEntry entry, Queue<ConstantUninliner> uninliners, IClassResolver resolver) {
+		try (InputStream is = jar.getInputStream(entry)) {
+			byte[] bytes = is.readAllBytes();
+
+			if (entry.isDirectory() || !entry.getName().endsWith(".class")) {
+				return bytes;
+			}
+
+			ClassNode node = new ClassNode();
+			new ClassReader(bytes).accept(node, 0);
+
+			ConstantUninliner uninliner = uninliners.poll();
+
+			if (uninliner == null) {
+				uninliner = createUninliner(resolver);
+			}
+
+			try {
+				uninliner.transform(node);
+			} finally {
+				uninliners.add(uninliner);
+			}
+
+			// unpick doesn't change control flow, so the frames stay valid
+			ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+			node.accept(writer);
+			return writer.toByteArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to unpick " + entry.getName(), e);
+		}
+	}
+
+	private static URL[] toUrls(List<Path> paths) throws MalformedURLException {
+		URL[] ret = new URL[paths.size()];
+
+		for (int i = 0; i < ret.length; i++) {
+			ret[i] = paths.get(i).toUri().toURL();
+		}
+
+		return ret;
+	}
+
+	@Override
+	public void close() throws IOException {
+		classpathLoader.close();
+	}
+
+	private record Output(JarEntry entry, byte[] bytes) {
+	}
+}
@@ -0,0 +1,250 @@
+package net.fabricmc.filament.unpick;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import daomephsta.unpick.constantmappers.datadriven.parser.FieldKey;
+import daomephsta.unpick.constantmappers.datadriven.parser.MethodKey;
+import daomephsta.unpick.constantmappers.datadriven.parser.v2.UnpickV2Reader;
+import org.jetbrains.annotations.Nullable;
+
+import net.fabricmc.mappingio.MappedElementKind;
+import net.fabricmc.mappingio.MappingReader;
+import net.fabricmc.mappingio.MappingVisitor;
+
+/**
+ * The class, method and field mappings an unpick definitions file needs to be remapped.
+ *
+ * <p>The definitions are read first to collect the classes and members they reference, then the mappings
+ * are streamed and only those entries are kept. Members of classes no definition refers to are skipped
+ * entirely, so neither the full mapping tree nor full lookup tables are held in memory.
+ */
+public record UnpickMappings(Map<String, String> classes, Map<MethodKey, String> methods, Map<FieldKey, String> fields) {
+	public static UnpickMappings read(Path definitions, Path mappings, String sourceNamespace, String targetNamespace) throws IOException {
+		References references = new References();
+
+		try (InputStream is = Files.newInputStream(definitions);
+				UnpickV2Reader reader = new UnpickV2Reader(is)) {
+			reader.accept(references);
+		}
+
+		Collector collector = new Collector(references, sourceNamespace, targetNamespace);
+		MappingReader.read(mappings, collector);
+		return collector.finish();
+	}
+
+	/**
+	 * Collects everything an {@link daomephsta.unpick.constantmappers.datadriven.parser.v2.UnpickV2Remapper} looks up.
+	 */
+	private static final class References implements UnpickV2Reader.Visitor {
+		private final Set<String> classes = new HashSet<>();
+		private final Map<String, Set<String>> methodNames = new HashMap<>();
+		private final Map<String, Set<String>> fieldNames = new HashMap<>();
+
+		@Override
+		public void visitSimpleConstantDefinition(String group, String owner, String name, String value, String descriptor) {
+			visitConstant(owner, name, descriptor);
+		}
+
+		@Override
+		public void visitFlagConstantDefinition(String group, String owner, String name, String value, String descriptor) {
+			visitConstant(owner, name, descriptor);
+		}
+
+		private void visitConstant(String owner, String name, @Nullable String descriptor) {
+			classes.add(owner);
+			fieldNames.computeIfAbsent(owner, k -> new HashSet<>()).add(name);
+
+			if (descriptor != null) {
+				addDescriptorClasses(descriptor);
+			}
+		}
+
+		@Override
+		public UnpickV2Reader.TargetMethodDefinitionVisitor visitTargetMethodDefinition(String owner, String name, String methodDescriptor) {
+			classes.add(owner);
+			methodNames.computeIfAbsent(owner, k -> new HashSet<>()).add(name);
+			addDescriptorClasses(methodDescriptor);
+			return null;
+		}
+
+		private void addDescriptorClasses(String descriptor) {
+			for (int start = descriptor.indexOf('L'); start >= 0; start = descriptor.indexOf('L', start)) {
+				int end = descriptor.indexOf(';', start);
+				classes.add(descriptor.substring(start + 1, end));
+				start = end;
+			}
+		}
+	}
+
+	private static final class Collector implements MappingVisitor {
+		private final References references;
+		private final String sourceNamespace;
+		private final String targetNamespace;
+		private final Map<String, String> classes = new HashMap<>();
+		private final Map<FieldKey, String> fields = new HashMap<>();
+		private final List<MethodCandidate> methods = new ArrayList<>();
+		// only needed to map method descriptors when the source namespace isn't the file's source namespace
+		private final Map<String, String> classSourceNames = new HashMap<>();
+		private int sourceId;
+		private int targetId;
+		private String[] names;
+		private String classSourceName;
+		private String memberSrcDesc;
+
+		Collector(References references, String sourceNamespace, String targetNamespace) {
+			this.references = references;
+			this.sourceNamespace = sourceNamespace;
+			this.targetNamespace = targetNamespace;
+		}
+
+		@Override
+		public void visitNamespaces(String srcNamespace, List<String> dstNamespaces) throws IOException {
+			sourceId = getNamespaceId(srcNamespace, dstNamespaces, sourceNamespace);
+			targetId = getNamespaceId(srcNamespace, dstNamespaces, targetNamespace);
+			names = new String[dstNamespaces.size() + 1];
+		}
+
+		private static int getNamespaceId(String srcNamespace, List<String> dstNamespaces, String namespace) throws IOException {
+			if (namespace.equals(srcNamespace)) {
+				return 0;
+			}
+
+			int index = dstNamespaces.indexOf(namespace);
+
+			if (index < 0) {
+				throw new IOException("Missing namespace " + namespace + " in mappings");
+			}
+
+			return index + 1;
+		}
+
+		@Override
+		public boolean visitClass(String srcName) throws IOException {
+			return visitElement(srcName, null);
+		}
+
+		@Override
+		public boolean visitField(String srcName, @Nullable String srcDesc) throws IOException {
+			return visitElement(srcName, srcDesc);
+		}
+
+		@Override
+		public boolean visitMethod(String srcName, @Nullable String srcDesc) throws IOException {
+			return visitElement(srcName, srcDesc);
+		}
+
+		private boolean visitElement(String srcName, @Nullable String srcDesc) {
+			names[0] = srcName;
+
+			for (int i = 1; i < names.length; i++) {
+				names[i] = null;
+			}
+
+			memberSrcDesc = srcDesc;
+			return true;
+		}
+
+		@Override
+		public boolean visitMethodArg(int argPosition, int lvIndex, @Nullable String srcName) throws IOException {
+			return false;
+		}
+
+		@Override
+		public boolean visitMethodVar(int lvtRowIndex, int lvIndex, int startOpIdx, int endOpIdx, @Nullable String srcName) throws IOException {
+			return false;
+		}
+
+		@Override
+		public void visitDstName(MappedElementKind targetKind, int namespace, String name) throws IOException {
+			names[namespace + 1] = name;
+		}
+
+		@Override
+		public boolean visitElementContent(MappedElementKind targetKind) throws IOException {
+			String sourceName = names[sourceId];
+
+			switch (targetKind) {
+			case CLASS:
+				classSourceName = sourceName;
+
+				if (sourceName == null) {
+					return false;
+				}
+
+				if (sourceId != 0) {
+					classSourceNames.put(names[0], sourceName);
+				}
+
+				if (references.classes.contains(sourceName)) {
+					classes.put(sourceName, Objects.requireNonNull(names[targetId], "Null to name: " + sourceName));
+				}
+
+				// members are only looked up on classes the definitions refer to
+				return references.methodNames.containsKey(sourceName) || references.fieldNames.containsKey(sourceName);
+			case METHOD:
+				Set<String> methodNames = references.methodNames.get(classSourceName);
+
+				if (sourceName != null && methodNames != null && methodNames.contains(sourceName)) {
+					methods.add(new MethodCandidate(classSourceName, sourceName, memberSrcDesc, Objects.requireNonNull(names[targetId], "Null to name: " + names[0])));
+				}
+
+				return false;
+			case FIELD:
+				Set<String> fieldNames = references.fieldNames.get(classSourceName);
+
+				if (sourceName != null && fieldNames != null && fieldNames.contains(sourceName)) {
+					fields.put(new FieldKey(classSourceName, sourceName), Objects.requireNonNull(names[targetId], "Null to name: " + names[0]));
+				}
+
+				return false;
+			default:
+				return false;
+			}
+		}
+
+		@Override
+		public void visitComment(MappedElementKind targetKind, String comment) throws IOException {
+		}
+
+		/**
+		 * Maps the descriptors of the collected methods once all classes are known.
+		 */
+		UnpickMappings finish() {
+			Map<MethodKey, String> methodMappings = new HashMap<>();
+
+			for (MethodCandidate method : methods) {
+				String desc = sourceId == 0 ? method.srcDesc() : mapDescriptor(method.srcDesc());
+				methodMappings.put(new MethodKey(method.owner(), method.name(), desc), method.targetName());
+			}
+
+			return new UnpickMappings(classes, methodMappings, fields);
+		}
+
+		private String mapDescriptor(String descriptor) {
+			StringBuilder ret = new StringBuilder(descriptor.length());
+			int last = 0;
+
+			for (int start = descriptor.indexOf('L'); start >= 0; start = descriptor.indexOf('L', last)) {
+				int end = descriptor.indexOf(';', start);
+				String name = descriptor.substring(start + 1, end);
+				ret.append(descriptor, last, start + 1).append(classSourceNames.getOrDefault(name, name));
+				last = end;
+			}
+
+			return ret.append(descriptor, last, descriptor.length()).toString();
+		}
+	}
+
+	private record MethodCandidate(String owner, String name, String srcDesc, String targetName) {
+	}
+}
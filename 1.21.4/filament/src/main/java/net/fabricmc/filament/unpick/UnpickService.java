@@ -0,0 +1,52 @@
+package net.fabricmc.filament.unpick;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import net.fabricmc.filament.util.HashUtil;
+
+/**
+ * Keeps {@link UnpickEngine}s for the duration of a build, so tasks unpicking against the same definitions,
+ * constants jar and classpath share them.
+ */
+public abstract class UnpickService implements BuildService<BuildServiceParameters.None>, AutoCloseable {
+	public static final String NAME = "filamentUnpick";
+
+	private final Map<EngineKey, UnpickEngine> engines = new ConcurrentHashMap<>();
+
+	public UnpickEngine getEngine(Path definitions, Path constantsJar, List<Path> classpath) throws IOException {
+		// keyed by content, the definitions may be regenerated during the build
+		EngineKey key = new EngineKey(HashUtil.sha1(definitions), constantsJar, List.copyOf(classpath));
+
+		try {
+			return engines.computeIfAbsent(key, k -> {
+				try {
+					return new UnpickEngine(definitions, constantsJar, classpath);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		for (UnpickEngine engine : engines.values()) {
+			engine.close();
+		}
+
+		engines.clear();
+	}
+
+	private record EngineKey(String definitionsHash, Path constantsJar, List<Path> classpath) {
+	}
+}
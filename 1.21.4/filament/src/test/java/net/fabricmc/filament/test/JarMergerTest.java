@@ -0,0 +1,122 @@
+package net.fabricmc.filament.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+import net.fabricmc.filament.merge.JarMerger;
+
+class JarMergerTest {
+	@TempDir
+	protected File directory;
+
+	@Test
+	void merge() throws IOException {
+		Path client = directory.toPath().resolve("client.jar");
+		Path server = directory.toPath().resolve("server.jar");
+		Path output = directory.toPath().resolve("merged.jar");
+		writeJar(client, "META-INF/MANIFEST.MF", "META-INF/MOJANGCS.SF", "META-INF/MOJANGCS.RSA", "net/minecraft/Common.class", "net/minecraft/ClientOnly.class", "version.json");
+		writeJar(server, "META-INF/MANIFEST.MF", "net/minecraft/ServerOnly.class", "net/minecraft/Common.class", "com/example/Library.class", "version.json");
+
+		JarMerger.merge(client, server, output);
+
+		try (ZipFile zip = new ZipFile(output.toFile())) {
+			List<String> names = new ArrayList<>();
+			zip.stream().forEach(entry -> names.add(entry.getName()));
+
+			// sorted after the manifest, without signatures and the library bundled with the server
+			assertThat(names).containsExactly(
+					"META-INF/",
+					"META-INF/MANIFEST.MF",
+					"net/",
+					"net/minecraft/",
+					"net/minecraft/ClientOnly.class",
+					"net/minecraft/Common.class",
+					"net/minecraft/ServerOnly.class",
+					"version.json"
+			);
+			assertThat(getEnvironment(zip, "net/minecraft/ClientOnly.class")).isEqualTo("CLIENT");
+			assertThat(getEnvironment(zip, "net/minecraft/ServerOnly.class")).isEqualTo("SERVER");
+			assertThat(getEnvironment(zip, "net/minecraft/Common.class")).isNull();
+
+			Manifest manifest;
+
+			try (InputStream is = zip.getInputStream(zip.getEntry(JarFile.MANIFEST_NAME))) {
+				manifest = new Manifest(is);
+			}
+
+			assertThat(manifest.getMainAttributes().getValue(Attributes.Name.MAIN_CLASS)).isEqualTo("net.minecraft.client.Main");
+			assertThat(manifest.getEntries()).isEmpty();
+		}
+	}
+
+	private static void writeJar(Path jar, String... names) throws IOException {
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar))) {
+			for (String name : names) {
+				out.putNextEntry(new ZipEntry(name));
+				out.write(name.endsWith(".class") ? createClass(name.substring(0, name.length() - 6)) : createFile(name));
+				out.closeEntry();
+			}
+		}
+	}
+
+	private static byte[] createFile(String name) {
+		if (name.equals(JarFile.MANIFEST_NAME)) {
+			// a signed manifest, with the digests of the unmerged classes
+			return "Manifest-Version: 1.0\r\n\r\nName: net/minecraft/Common.class\r\nSHA-256-Digest: AAAA\r\n\r\n".getBytes(StandardCharsets.UTF_8);
+		}
+
+		return name.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] createClass(String name) {
+		ClassWriter writer = new ClassWriter(0);
+		writer.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+
+	private static String getEnvironment(ZipFile zip, String name) throws IOException {
+		String[] side = new String[1];
+		byte[] data;
+
+		try (InputStream is = zip.getInputStream(zip.getEntry(name))) {
+			data = is.readAllBytes();
+		}
+
+		new ClassReader(data).accept(new ClassVisitor(Opcodes.ASM9) {
+			@Override
+			public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+				return new AnnotationVisitor(Opcodes.ASM9) {
+					@Override
+					public void visitEnum(String name, String descriptor, String value) {
+						side[0] = value;
+					}
+				};
+			}
+		}, 0);
+
+		return side[0];
+	}
+}
@@ -58,6 +58,24 @@ class JavadocLintTest extends ProjectTest {
 		assertThat(result.getOutput()).contains("Found 3 javadoc format errors");
 	}
 
+	@Test
+	public void errorsSortedByName() {
+		setupProject(
+				"javadocLint",
+				"mappings/UppercaseParam.mapping",
+				"mappings/ParamInMethod.mapping",
+				"mappings/ParamPeriod.mapping"
+		);
+		BuildResult result = runGradleBuild(false);
+		String output = result.getOutput();
+
+		assertThat(output.indexOf("lint: com/example/ParamInMethod"))
+				.isNotNegative()
+				.isLessThan(output.indexOf("lint: com/example/ParamPeriod"));
+		assertThat(output.indexOf("lint: com/example/ParamPeriod"))
+				.isLessThan(output.indexOf("lint: com/example/UppercaseParam"));
+	}
+
 	@Test
 	public void successful() {
 		setupProject("javadocLint", "mappings/Successful.mapping");
@@ -4,6 +4,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import org.gradle.testkit.runner.BuildResult;
 import org.gradle.testkit.runner.GradleRunner;
@@ -31,4 +35,30 @@ class UnpickDefinitionsTest extends ProjectTest {
 		assertThat(new File(projectDirectory, "combined_definitions.unpick")).exists().hasContent(getProjectFileText("unpickDef", "expected_named.unpick"));
 		assertThat(new File(projectDirectory, "intermediary_definitions.unpick")).exists().hasContent(getProjectFileText("unpickDef", "expected_intermediary.unpick"));
 	}
+
+	@Test
+	void combineUnpickDefinitionsAfterEdit() throws IOException {
+		setupProject(
+				"unpickDef",
+				"unpick-definitions/screen_handler_slot_ids.unpick",
+				"unpick-definitions/set_block_state_flags.unpick"
+		);
+
+		GradleRunner runner = GradleRunner.create()
+				.withPluginClasspath()
+				.withProjectDir(projectDirectory)
+				.withArguments("combineUnpickDefinitions");
+		runner.build();
+
+		// a comment changes the file's hash but not its definitions
+		Path edited = projectDirectory.toPath().resolve("unpick-definitions/set_block_state_flags.unpick");
+		Files.writeString(edited, "# edited\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+		BuildResult result = runner.build();
+
+		assertThat(result.task(":combineUnpickDefinitions").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+		assertThat(new File(projectDirectory, "combined_definitions.unpick")).exists().hasContent(getProjectFileText("unpickDef", "expected_named.unpick"));
+		// the cached output of the file before the edit is dropped
+		assertThat(new File(projectDirectory, ".gradle/filament/unpick/combineUnpickDefinitions").list()).hasSize(2);
+	}
 }
@@ -42,6 +42,13 @@ public abstract class FilamentExtension {
 		return getProject().getObjects().directoryProperty().fileValue(new File(getProject().getRootDir(), ".gradle/filament"));
 	}
 
+	/**
+	 * Artifacts generated purely from Mojang's files, shared by every project of the user and kept across {@code cleanFilament}.
+	 */
+	public DirectoryProperty getArtifactCacheDirectory() {
+		return getProject().getObjects().directoryProperty().fileValue(new File(getProject().getGradle().getGradleUserHomeDir(), "caches/filament/artifacts"));
+	}
+
 	public Provider<Directory> getMinecraftDirectory() {
 		return getCacheDirectory().dir(getMinecraftVersion());
 	}
@@ -0,0 +1,47 @@
+package net.fabricmc.filament.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A content-addressed store of generated artifacts, shared by every build using the same cache directory.
+ *
+ * <p>Artifacts are keyed by the hashes of what they were made from, so an artifact found in the cache is
+ * always the one the producer would make and can be copied instead of being made again.
+ */
+public final class ArtifactCache {
+	private ArtifactCache() {
+	}
+
+	/**
+	 * Copies the artifact stored under the key to the output, producing and storing it first if it's missing.
+	 */
+	public static void copyOrProduce(Path cacheDirectory, String key, Path output, Producer producer) throws IOException {
+		Path cached = cacheDirectory.resolve(key);
+
+		if (!Files.exists(cached)) {
+			Files.createDirectories(cached.getParent());
+			Path tmp = Files.createTempFile(cached.getParent(), cached.getFileName().toString(), ".tmp");
+
+			try {
+				// producers expect to create the file themselves
+				Files.delete(tmp);
+				producer.produce(tmp);
+				// other builds may be producing the same artifact, they're identical so whichever finishes last wins
+				Files.move(tmp, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(tmp);
+			}
+		}
+
+		Files.createDirectories(output.toAbsolutePath().getParent());
+		Files.copy(cached, output, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	@FunctionalInterface
+	public interface Producer {
+		void produce(Path output) throws IOException;
+	}
+}
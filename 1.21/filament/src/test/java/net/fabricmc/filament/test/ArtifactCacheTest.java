@@ -0,0 +1,55 @@
+package net.fabricmc.filament.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.fabricmc.filament.util.ArtifactCache;
+
+class ArtifactCacheTest {
+	@TempDir
+	protected File directory;
+
+	@Test
+	void producesOnce() throws IOException {
+		Path cache = directory.toPath().resolve("cache");
+		AtomicInteger produced = new AtomicInteger();
+		ArtifactCache.Producer producer = output -> {
+			produced.incrementAndGet();
+			Files.writeString(output, "Hello, world!");
+		};
+
+		Path first = directory.toPath().resolve("first/output.txt");
+		Path second = directory.toPath().resolve("second/output.txt");
+		ArtifactCache.copyOrProduce(cache, "some/key.txt", first, producer);
+		ArtifactCache.copyOrProduce(cache, "some/key.txt", second, producer);
+
+		assertThat(produced).hasValue(1);
+		assertThat(first).hasContent("Hello, world!");
+		assertThat(second).hasContent("Hello, world!");
+		assertThat(cache.resolve("some/key.txt")).hasContent("Hello, world!");
+	}
+
+	@Test
+	void failedProductionIsNotStored() {
+		Path cache = directory.toPath().resolve("cache");
+		Path output = directory.toPath().resolve("output.txt");
+
+		assertThatThrownBy(() -> ArtifactCache.copyOrProduce(cache, "key.txt", output, out -> {
+			Files.writeString(out, "partial");
+			throw new IOException("failed");
+		})).isInstanceOf(IOException.class).hasMessage("failed");
+
+		assertThat(cache.resolve("key.txt")).doesNotExist();
+		assertThat(output).doesNotExist();
+		assertThat(cache.toFile().list()).isEmpty();
+	}
+}
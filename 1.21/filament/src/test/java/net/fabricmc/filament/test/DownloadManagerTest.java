@@ -0,0 +1,139 @@
+package net.fabricmc.filament.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.fabricmc.filament.download.DownloadManager;
+import net.fabricmc.filament.util.HashUtil;
+
+class DownloadManagerTest {
+	private static final byte[] CONTENT = new byte[100_000];
+
+	static {
+		new Random(0).nextBytes(CONTENT);
+	}
+
+	@TempDir
+	protected File directory;
+
+	private HttpServer server;
+	private final List<String> ranges = Collections.synchronizedList(new ArrayList<>());
+	private DownloadManager manager;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/file", this::serve);
+		server.start();
+		manager = new DownloadManager(directory.toPath().resolve("cache"), 2);
+	}
+
+	@AfterEach
+	void stopServer() {
+		server.stop(0);
+	}
+
+	/**
+	 * Serves the content, supporting the {@code bytes=start-} ranges the manager requests.
+	 */
+	private void serve(HttpExchange exchange) throws IOException {
+		String range = exchange.getRequestHeaders().getFirst("Range");
+		ranges.add(range);
+		int start = range == null ? 0 : Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+
+		if (range != null) {
+			exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + (CONTENT.length - 1) + "/" + CONTENT.length);
+		}
+
+		exchange.sendResponseHeaders(range == null ? 200 : 206, CONTENT.length - start);
+
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(CONTENT, start, CONTENT.length - start);
+		}
+	}
+
+	private URI getUri() {
+		return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/file");
+	}
+
+	@Test
+	void downloadsOnce() throws IOException {
+		String sha1 = HashUtil.sha1(CONTENT);
+		Path first = directory.toPath().resolve("first.bin");
+		Path second = directory.toPath().resolve("second.bin");
+
+		manager.download(getUri(), sha1, first);
+		manager.download(getUri(), sha1, second);
+
+		assertThat(first).hasBinaryContent(CONTENT);
+		assertThat(second).hasBinaryContent(CONTENT);
+		assertThat(ranges).hasSize(1);
+	}
+
+	@Test
+	void resumesPartialDownload() throws IOException {
+		String sha1 = HashUtil.sha1(CONTENT);
+		Path partial = directory.toPath().resolve("cache/partial/" + sha1 + ".part");
+		Files.createDirectories(partial.getParent());
+		Files.write(partial, Arrays.copyOf(CONTENT, 40_000));
+
+		Path output = directory.toPath().resolve("output.bin");
+		manager.download(getUri(), sha1, output);
+
+		assertThat(output).hasBinaryContent(CONTENT);
+		assertThat(ranges).containsExactly("bytes=40000-");
+		assertThat(partial).doesNotExist();
+	}
+
+	@Test
+	void rejectsWrongHash() {
+		Path output = directory.toPath().resolve("output.bin");
+
+		assertThatThrownBy(() -> manager.download(getUri(), HashUtil.sha1(new byte[0]), output))
+				.isInstanceOf(IOException.class)
+				.hasMessageContaining("SHA-1 mismatch");
+		assertThat(output).doesNotExist();
+	}
+
+	@Test
+	void downloadsWithoutHash() throws IOException {
+		Path output = directory.toPath().resolve("output.bin");
+
+		manager.download(getUri(), null, output);
+
+		assertThat(output).hasBinaryContent(CONTENT);
+		assertThat(directory.toPath().resolve("cache")).doesNotExist();
+	}
+
+	@Test
+	void restartsUnhashedDownload() throws IOException {
+		Path output = directory.toPath().resolve("output.bin");
+		// left over from an interrupted run, possibly of a different version of the file
+		Files.write(directory.toPath().resolve("output.bin.part"), new byte[40_000]);
+
+		manager.download(getUri(), null, output);
+
+		assertThat(output).hasBinaryContent(CONTENT);
+		assertThat(ranges).containsExactly((String) null);
+	}
+}
@@ -0,0 +1,84 @@
+package core.Api;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import core.Batch.BatchResult;
+import core.Batch.ModpackBatchService;
+import core.Scheduler.PipelineBusyException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/upload")
+@CrossOrigin(origins = {"https://goldfromgoldwila.github.io", "https://modupdater.onrender.com"},
+             allowedHeaders = "*",
+             exposedHeaders = {"Content-Disposition"},
+             methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.OPTIONS},
+             allowCredentials = "true")
+public class BatchUploadController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchUploadController.class);
+
+    @Autowired
+    private ModpackBatchService modpackBatchService;
+
+    /**
+     * Accepts either a list of mod jars ({@code files}) or a modpack zip ({@code modpack}),
+     * or both, and checks every mod against the target version in one request.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> handleBatchUpload(
+            @RequestParam(value = "files", required = false) List<MultipartFile> files,
+            @RequestParam(value = "modpack", required = false) MultipartFile modpack,
+            @RequestParam("targetVersion") String targetVersion) {
+        try {
+            BatchResult result = modpackBatchService.processBatch(files, modpack, targetVersion);
+            return ResponseEntity.ok(result.toMap());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected batch upload: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (PipelineBusyException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error processing batch upload: {}", e.getMessage());
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to process batch upload: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/batch/{batchId}/report")
+    public ResponseEntity<Resource> downloadBatchReport(@PathVariable("batchId") String batchId) {
+        try {
+            Optional<Path> report = modpackBatchService.findReport(batchId);
+            if (report.isEmpty()) {
+                logger.error("No report found for batch {}", batchId);
+                return ResponseEntity.notFound().build();
+            }
+
+            Path reportPath = report.get();
+            logger.info("Serving batch report: {}", reportPath);
+
+            return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_PLAIN)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"" + reportPath.getFileName().toString() + "\"")
+                .body(new FileSystemResource(reportPath.toFile()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected batch report download: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error downloading batch report: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
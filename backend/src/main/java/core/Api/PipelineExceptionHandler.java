@@ -0,0 +1,29 @@
+package core.Api;
+
+import core.Scheduler.PipelineBusyException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import java.util.Map;
+
+@RestControllerAdvice
+public class PipelineExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineExceptionHandler.class);
+
+    @ExceptionHandler(PipelineBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleBusy(PipelineBusyException e) {
+        logger.warn("Rejecting request: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .body(Map.of(
+                "error", e.getMessage(),
+                "stage", e.getStage().getId(),
+                "retryAfterSeconds", e.getRetryAfterSeconds()
+            ));
+    }
+}
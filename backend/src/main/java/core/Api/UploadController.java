@@ -6,6 +6,10 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import core.Decompiler.ModDecompilerService;
 import core.Extracter.ExtractJson;
+import core.Metrics.PipelineMetrics;
+import core.Scheduler.PipelineBusyException;
+import core.Scheduler.PipelineScheduler;
+import core.Scheduler.PipelineStage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.Map;
@@ -20,6 +24,9 @@ import java.util.Map;
 public class UploadController {
     
     private static final Logger logger = LoggerFactory.getLogger(UploadController.class);
+    // Rough heap estimates used for admission, relative to the uploaded jar size
+    private static final int DECOMPILE_SIZE_FACTOR = 4;
+    private static final long DIFF_ESTIMATE_BYTES = 64L * 1024 * 1024;
     
     @Autowired
     private ModDecompilerService modDecompilerService;
@@ -27,6 +34,12 @@ public class UploadController {
     @Autowired
     private ExtractJson extractJson;
 
+    @Autowired
+    private PipelineScheduler pipelineScheduler;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
     private String originalVersion;
     private String targetVersion;
     private String fileName;
@@ -43,14 +56,26 @@ public class UploadController {
             logger.info("Received file: {}", this.fileName);
             logger.info("Target version requested: {}", this.targetVersion);
             
+            pipelineMetrics.recordUploadBytes(file.getSize());
+            
             // Handle file upload
-            modDecompilerService.handleFileUpload(file);
+            pipelineMetrics.time("upload", () -> pipelineScheduler.run(PipelineStage.IO, file.getSize(), () -> {
+                modDecompilerService.handleFileUpload(file);
+                return null;
+            }));
             
             // Decompile and process
-            modDecompilerService.decompileLatestMod();
+            pipelineMetrics.time("decompile", () -> pipelineScheduler.run(PipelineStage.DECOMPILE,
+                    file.getSize() * DECOMPILE_SIZE_FACTOR, () -> {
+                modDecompilerService.decompileLatestMod();
+                return null;
+            }));
             
             // Process version update and get clean version
-            extractJson.processMod(targetVersion);
+            pipelineMetrics.time("version_update", () -> pipelineScheduler.run(PipelineStage.DIFF, DIFF_ESTIMATE_BYTES, () -> {
+                extractJson.processMod(targetVersion);
+                return null;
+            }));
             String cleanVersion = extractJson.getCleanVersion();
             this.originalVersion = cleanVersion != null ? cleanVersion : "unknown";
             
@@ -65,6 +90,8 @@ public class UploadController {
                 "originalVersion", this.originalVersion,
                 "targetVersion", this.targetVersion
             ));
+        } catch (PipelineBusyException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error processing upload: {}", e.getMessage());
             return ResponseEntity.internalServerError()
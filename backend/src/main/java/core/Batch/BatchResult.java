@@ -0,0 +1,59 @@
+package core.Batch;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Aggregated outcome of a modpack batch: per-mod results plus the report file.
+ */
+public final class BatchResult {
+    private final String batchId;
+    private final String targetVersion;
+    private final String reportFile;
+    private final List<ModResult> results;
+
+    BatchResult(String batchId, String targetVersion, String reportFile, List<ModResult> results) {
+        this.batchId = batchId;
+        this.targetVersion = targetVersion;
+        this.reportFile = reportFile;
+        this.results = results;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public String getTargetVersion() {
+        return targetVersion;
+    }
+
+    public String getReportFile() {
+        return reportFile;
+    }
+
+    public List<ModResult> getResults() {
+        return results;
+    }
+
+    public Map<ModResult.Status, Long> getStatusCounts() {
+        Map<ModResult.Status, Long> counts = new EnumMap<>(ModResult.Status.class);
+        for (ModResult.Status status : ModResult.Status.values()) {
+            counts.put(status, 0L);
+        }
+        results.forEach(result -> counts.merge(result.getStatus(), 1L, Long::sum));
+        return counts;
+    }
+
+    public Map<String, Object> toMap() {
+        return Map.of(
+            "batchId", batchId,
+            "targetVersion", targetVersion,
+            "report", reportFile,
+            "totalMods", results.size(),
+            "summary", getStatusCounts(),
+            "mods", results.stream().map(ModResult::toMap).collect(Collectors.toList())
+        );
+    }
+}
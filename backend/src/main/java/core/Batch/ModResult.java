@@ -0,0 +1,60 @@
+package core.Batch;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of checking a single mod of a batch against the target version.
+ */
+public final class ModResult {
+    public enum Status { COMPATIBLE, NEEDS_REVIEW, UNSUPPORTED_VERSION, FAILED }
+
+    private final String fileName;
+    private final String originalVersion;
+    private final Status status;
+    private final List<String> affectedClasses;
+    private final String error;
+
+    ModResult(String fileName, String originalVersion, Status status, List<String> affectedClasses, String error) {
+        this.fileName = fileName;
+        this.originalVersion = originalVersion;
+        this.status = status;
+        this.affectedClasses = affectedClasses;
+        this.error = error;
+    }
+
+    static ModResult failed(String fileName, String originalVersion, String error) {
+        return new ModResult(fileName, originalVersion, Status.FAILED, List.of(), error);
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getOriginalVersion() {
+        return originalVersion;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /** Referenced Minecraft classes whose mappings changed, formatted as {@code TYPE intermediary (path)}. */
+    public List<String> getAffectedClasses() {
+        return affectedClasses;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Map<String, Object> toMap() {
+        return Map.of(
+            "filename", fileName,
+            "originalVersion", originalVersion != null ? originalVersion : "unknown",
+            "status", status.name(),
+            "affectedClasses", affectedClasses,
+            "error", error != null ? error : ""
+        );
+    }
+}
@@ -0,0 +1,427 @@
+package core.Batch;
+
+import core.Comparer.FileChange;
+import core.Comparer.VersionChainService;
+import core.Comparer.VersionImpact;
+import core.Config.DirectoryConfig;
+import core.Decompiler.ModDecompilerService;
+import core.Extracter.ExtractJson;
+import core.Extracter.VersionParser;
+import core.Metrics.PipelineMetrics;
+import core.Scheduler.PipelineBusyException;
+import core.Scheduler.PipelineScheduler;
+import core.Scheduler.PipelineStage;
+import org.objectweb.asm.ClassReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Processes a whole modpack in one go. Jars are fanned out across the pipeline pools
+ * while the version-pair delta and its symbol index are computed once per distinct
+ * source version and shared by every mod of the batch.
+ */
+@Service
+public class ModpackBatchService {
+    private static final Logger logger = LoggerFactory.getLogger(ModpackBatchService.class);
+    private static final String DIFF_OUTPUT_DIR = "diff_results";
+    private static final String REPORT_PREFIX = "batch_report_";
+    private static final Pattern BATCH_ID = Pattern.compile("batch_[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}");
+    private static final int CONSTANT_CLASS = 7;
+    // Rough heap estimates used for admission, relative to the jar size
+    private static final int SCAN_SIZE_FACTOR = 3;
+    private static final long DIFF_ESTIMATE_BYTES = 64L * 1024 * 1024;
+
+    @Autowired
+    private ModDecompilerService modDecompilerService;
+
+    @Autowired
+    private ExtractJson extractJson;
+
+    @Autowired
+    private VersionChainService versionChainService;
+
+    @Autowired
+    private PipelineScheduler pipelineScheduler;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    public BatchResult processBatch(List<MultipartFile> files, MultipartFile modpack, String targetVersion)
+            throws IOException {
+        if (!versionChainService.isKnownVersion(targetVersion)) {
+            throw new IllegalArgumentException("Unsupported target version: " + targetVersion);
+        }
+
+        String batchId = "batch_" + UUID.randomUUID();
+        Path batchDir = Paths.get(DirectoryConfig.BATCH_DIR, batchId);
+        try {
+            return runBatch(batchId, batchDir, files, modpack, targetVersion);
+        } finally {
+            // Only the report outlives the batch
+            deleteBatchDirectory(batchDir);
+        }
+    }
+
+    private BatchResult runBatch(String batchId, Path batchDir, List<MultipartFile> files, MultipartFile modpack,
+            String targetVersion) throws IOException {
+        Path uploadDir = Files.createDirectories(batchDir.resolve("uploaded_mods"));
+        Path extractDir = Files.createDirectories(batchDir.resolve("decompiled_mods"));
+
+        long uploadBytes = (modpack != null ? modpack.getSize() : 0)
+            + (files != null ? files.stream().mapToLong(MultipartFile::getSize).sum() : 0);
+        List<Path> jars;
+        try {
+            jars = pipelineScheduler.run(PipelineStage.IO, uploadBytes, () -> storeUploads(uploadDir, files, modpack));
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to store batch upload", e);
+        }
+        if (jars.isEmpty()) {
+            throw new IllegalArgumentException("No mod jars found in request");
+        }
+
+        logger.info("=== Starting Batch {} ===", batchId);
+        logger.info("Mods: {}, target version: {}", jars.size(), targetVersion);
+
+        // Keep at most one window of jars in flight so a large modpack does not
+        // overflow the stage queues that single uploads share. A stage that is still
+        // full rejects the whole batch with 429, like a single upload
+        Map<String, CompletableFuture<VersionImpact>> impacts = new ConcurrentHashMap<>();
+        BatchDiffs diffs = new BatchDiffs(impacts, targetVersion);
+        int window = pipelineScheduler.getParallelism(PipelineStage.DECOMPILE);
+        List<ModResult> results = new ArrayList<>(jars.size());
+        for (int start = 0; start < jars.size(); start += window) {
+            List<CompletableFuture<ModResult>> futures = jars.subList(start, Math.min(jars.size(), start + window))
+                .stream()
+                .map(jar -> processJar(jar, extractDir, targetVersion, diffs))
+                .collect(Collectors.toList());
+            // Let the whole window settle before a rejection is rethrown
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(t -> null).join();
+            for (CompletableFuture<ModResult> future : futures) {
+                results.add(await(future));
+            }
+        }
+
+        BatchResult result = new BatchResult(batchId, targetVersion, REPORT_PREFIX + batchId + ".txt", results);
+        writeReport(result, impacts);
+
+        logger.info("=== Batch Summary ===");
+        logger.info("Batch: {}", batchId);
+        logger.info("Results: {}", result.getStatusCounts());
+        return result;
+    }
+
+    private static ModResult await(CompletableFuture<ModResult> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof PipelineBusyException) {
+                throw (PipelineBusyException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Aggregated report of a batch, if it has been written.
+     *
+     * @throws IllegalArgumentException if the id is not one handed out by {@link #processBatch}
+     */
+    public Optional<Path> findReport(String batchId) {
+        if (batchId == null || !BATCH_ID.matcher(batchId).matches()) {
+            throw new IllegalArgumentException("Invalid batch id: " + batchId);
+        }
+
+        Path reportPath = Paths.get(DIFF_OUTPUT_DIR, REPORT_PREFIX + batchId + ".txt");
+        return Files.isRegularFile(reportPath) ? Optional.of(reportPath) : Optional.empty();
+    }
+
+    private void deleteBatchDirectory(Path batchDir) {
+        if (!Files.exists(batchDir)) {
+            return;
+        }
+
+        try (Stream<Path> paths = Files.walk(batchDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            logger.warn("Failed to clean up {}: {}", batchDir, e.getMessage());
+        }
+    }
+
+    /**
+     * Runs one mod through the pipeline: extraction on the I/O pool, class scanning on
+     * the decompile pool and the shared version-pair index on the diff pool. Failures
+     * become a failed result, except {@link PipelineBusyException} which fails the future.
+     */
+    private CompletableFuture<ModResult> processJar(Path jar, Path extractDir, String targetVersion,
+            BatchDiffs diffs) {
+        String fileName = jar.getFileName().toString();
+        AtomicReference<String> sourceVersion = new AtomicReference<>();
+        long size = jar.toFile().length();
+
+        try {
+            CompletableFuture<File> extracted = pipelineScheduler.submit(PipelineStage.IO, size, () -> {
+                File modDir = modDecompilerService.extractMod(jar, extractDir).toFile();
+                sourceVersion.set(extractJson.readMinecraftVersion(modDir));
+                return modDir;
+            });
+
+            return extracted.thenCompose(modDir -> {
+                if (sourceVersion.get() == null) {
+                    return CompletableFuture.completedFuture(
+                        ModResult.failed(fileName, null, "No Minecraft version found in fabric.mod.json"));
+                }
+
+                String resolved = resolveVersion(sourceVersion.get());
+                if (resolved == null) {
+                    return CompletableFuture.completedFuture(new ModResult(fileName, sourceVersion.get(),
+                        ModResult.Status.UNSUPPORTED_VERSION, List.of(), null));
+                }
+                sourceVersion.set(resolved);
+
+                CompletableFuture<VersionImpact> impact = diffs.get(resolved);
+                CompletableFuture<SortedSet<String>> references = pipelineScheduler.submit(
+                    PipelineStage.DECOMPILE, size * SCAN_SIZE_FACTOR,
+                    () -> pipelineMetrics.time("batch_scan", () -> scanClassReferences(jar)));
+
+                return impact.thenCombine(references, this::findAffectedClasses)
+                    .thenApply(affected -> {
+                        ModResult.Status status = affected.isEmpty() ? ModResult.Status.COMPATIBLE : ModResult.Status.NEEDS_REVIEW;
+                        logger.info("Processed {} ({} -> {}): {} affected classes", fileName, resolved, targetVersion, affected.size());
+                        return new ModResult(fileName, resolved, status, affected, null);
+                    });
+            }).exceptionally(t -> {
+                if (unwrap(t) instanceof PipelineBusyException) {
+                    throw (PipelineBusyException) unwrap(t);
+                }
+                return failed(fileName, sourceVersion.get(), t);
+            });
+        } catch (PipelineBusyException e) {
+            // Fail the future rather than throw, so the rest of the window still settles
+            return CompletableFuture.failedFuture(e);
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(failed(fileName, null, e));
+        }
+    }
+
+    /**
+     * The version-pair diffs of one batch, one per distinct source version. They are
+     * submitted one after another, so the batch never competes with itself for the
+     * DIFF memory budget and is only rejected when other requests hold it.
+     */
+    private final class BatchDiffs {
+        private final Map<String, CompletableFuture<VersionImpact>> impacts;
+        private final String targetVersion;
+        private CompletableFuture<?> tail = CompletableFuture.completedFuture(null);
+
+        BatchDiffs(Map<String, CompletableFuture<VersionImpact>> impacts, String targetVersion) {
+            this.impacts = impacts;
+            this.targetVersion = targetVersion;
+        }
+
+        CompletableFuture<VersionImpact> get(String sourceVersion) {
+            CompletableFuture<VersionImpact> impact = impacts.computeIfAbsent(sourceVersion, this::enqueue);
+            // Don't keep a failed diff around, the next mod of this version retries it
+            impact.whenComplete((value, t) -> {
+                if (t != null) {
+                    impacts.remove(sourceVersion, impact);
+                }
+            });
+            return impact;
+        }
+
+        private synchronized CompletableFuture<VersionImpact> enqueue(String sourceVersion) {
+            CompletableFuture<VersionImpact> next = tail.handle((value, t) -> null)
+                .thenCompose(ignored -> pipelineScheduler.submit(PipelineStage.DIFF, DIFF_ESTIMATE_BYTES,
+                    () -> VersionImpact.of(versionChainService.diff(sourceVersion, targetVersion))));
+            tail = next;
+            return next;
+        }
+    }
+
+    private String resolveVersion(String sourceVersion) {
+        if (versionChainService.isKnownVersion(sourceVersion)) {
+            return sourceVersion;
+        }
+
+        String parsed = VersionParser.cleanVersion(sourceVersion);
+        return parsed != null && versionChainService.isKnownVersion(parsed) ? parsed : null;
+    }
+
+    private List<String> findAffectedClasses(VersionImpact impact, SortedSet<String> references) {
+        List<String> affected = new ArrayList<>();
+        for (String className : references) {
+            FileChange change = impact.lookup(className);
+            if (change != null) {
+                affected.add(String.format("%s %s (%s)", change.getType(), className, change.getPath()));
+            }
+        }
+        return affected;
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+    }
+
+    private ModResult failed(String fileName, String sourceVersion, Throwable t) {
+        Throwable cause = unwrap(t);
+        logger.error("Error processing {} in batch: {}", fileName, cause.getMessage());
+        return ModResult.failed(fileName, sourceVersion, cause.getMessage());
+    }
+
+    /**
+     * Collects the Minecraft classes a mod references, read from the CONSTANT_Class
+     * entries of its class files without parsing method bodies.
+     */
+    private SortedSet<String> scanClassReferences(Path jar) throws IOException {
+        SortedSet<String> references = new TreeSet<>();
+        char[] buffer = null;
+
+        try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+            for (ZipEntry entry : Collections.list(zipFile.entries())) {
+                if (entry.isDirectory() || !entry.getName().endsWith(".class")) continue;
+
+                ClassReader reader;
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    reader = new ClassReader(in);
+                } catch (IllegalArgumentException e) {
+                    logger.debug("Skipping unreadable class {}: {}", entry.getName(), e.getMessage());
+                    continue;
+                }
+
+                if (buffer == null || buffer.length < reader.getMaxStringLength()) {
+                    buffer = new char[reader.getMaxStringLength()];
+                }
+
+                for (int i = 1; i < reader.getItemCount(); i++) {
+                    int offset = reader.getItem(i);
+                    if (offset > 0 && reader.readByte(offset - 1) == CONSTANT_CLASS) {
+                        String name = reader.readClass(offset, buffer);
+                        if (name != null && name.startsWith("net/minecraft/")) {
+                            references.add(name);
+                        }
+                    }
+                }
+            }
+        }
+        return references;
+    }
+
+    private List<Path> storeUploads(Path uploadDir, List<MultipartFile> files, MultipartFile modpack)
+            throws IOException {
+        List<Path> jars = new ArrayList<>();
+        if (files != null) {
+            for (MultipartFile file : files) {
+                if (!file.isEmpty()) {
+                    jars.add(storeJar(uploadDir, file.getOriginalFilename(), file.getInputStream()));
+                }
+            }
+        }
+        if (modpack != null && !modpack.isEmpty()) {
+            jars.addAll(unpackModpack(uploadDir, modpack));
+        }
+        return jars;
+    }
+
+    private Path storeJar(Path uploadDir, String originalName, InputStream in) throws IOException {
+        String name = Paths.get(originalName != null ? originalName : "mod.jar").getFileName().toString();
+        Path target = uploadDir.resolve(name);
+        for (int i = 1; Files.exists(target); i++) {
+            target = uploadDir.resolve(name.replace(".jar", "") + "_" + i + ".jar");
+        }
+
+        try (InputStream input = in) {
+            Files.copy(input, target);
+        }
+        return target;
+    }
+
+    private List<Path> unpackModpack(Path uploadDir, MultipartFile modpack) throws IOException {
+        List<Path> jars = new ArrayList<>();
+        try (ZipInputStream zis = new ZipInputStream(new BufferedInputStream(modpack.getInputStream()))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                if (!entry.isDirectory() && entry.getName().endsWith(".jar")) {
+                    jars.add(storeJar(uploadDir, entry.getName(), new FilterInputStream(zis) {
+                        @Override
+                        public void close() {
+                            // Keep the modpack stream open for the next entry
+                        }
+                    }));
+                }
+            }
+        }
+        logger.info("Unpacked {} jars from modpack {}", jars.size(), modpack.getOriginalFilename());
+        return jars;
+    }
+
+    private void writeReport(BatchResult result, Map<String, CompletableFuture<VersionImpact>> impacts)
+            throws IOException {
+        Files.createDirectories(Paths.get(DIFF_OUTPUT_DIR));
+        Path reportPath = Paths.get(DIFF_OUTPUT_DIR, result.getReportFile());
+        List<ModResult> results = result.getResults();
+        String targetVersion = result.getTargetVersion();
+
+        Map<String, Long> classUsage = results.stream()
+            .flatMap(result -> result.getAffectedClasses().stream())
+            .collect(Collectors.groupingBy(c -> c, TreeMap::new, Collectors.counting()));
+
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(reportPath))) {
+            writer.println("=== Modpack Compatibility Report ===");
+            writer.println("Generated: " + LocalDateTime.now());
+            writer.println("Batch: " + result.getBatchId());
+            writer.println("Target Version: " + targetVersion);
+            writer.println("Total Mods: " + results.size());
+
+            writer.println("\n=== Status Summary ===");
+            result.getStatusCounts().forEach((status, count) -> writer.println(status + ": " + count));
+
+            writer.println("\n=== Version Pairs ===");
+            new TreeMap<>(impacts).forEach((source, future) -> {
+                VersionImpact impact = future.getNow(null);
+                if (impact != null && !future.isCompletedExceptionally()) {
+                    writer.printf("%s -> %s: %d changed files, %d changed classes%n",
+                        source, targetVersion, impact.getDelta().size(), impact.size());
+                }
+            });
+
+            writer.println("\n=== Most Affected Classes ===");
+            classUsage.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> writer.println(entry.getValue() + " mod(s): " + entry.getKey()));
+
+            writer.println("\n=== Per-Mod Results ===");
+            for (ModResult mod : results) {
+                writer.println("\nMod: " + mod.getFileName());
+                writer.println("Original Version: " + (mod.getOriginalVersion() != null ? mod.getOriginalVersion() : "unknown"));
+                writer.println("Status: " + mod.getStatus());
+                if (mod.getError() != null) {
+                    writer.println("Error: " + mod.getError());
+                }
+                mod.getAffectedClasses().forEach(c -> writer.println("  - " + c));
+            }
+        }
+
+        pipelineMetrics.recordReportBytes("batch", Files.size(reportPath));
+        logger.info("Generated batch report: {}", reportPath);
+    }
+}
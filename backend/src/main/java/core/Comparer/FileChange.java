@@ -0,0 +1,75 @@
+package core.Comparer;
+
+import java.util.Objects;
+
+/**
+ * State of a single file across a version step. A null hash means the file
+ * does not exist on that side. The identity is used to pair renames: for yarn
+ * {@code .mapping} files it is the intermediary class name, otherwise the content hash.
+ */
+public final class FileChange {
+    public enum Type { ADDED, MODIFIED, DELETED, RENAMED }
+
+    private final String path;
+    private final String oldPath;
+    private final String oldHash;
+    private final String newHash;
+    private final String oldIdentity;
+    private final String newIdentity;
+
+    public FileChange(String path, String oldPath, String oldHash, String newHash,
+            String oldIdentity, String newIdentity) {
+        this.path = path;
+        this.oldPath = oldPath;
+        this.oldHash = oldHash;
+        this.newHash = newHash;
+        this.oldIdentity = oldIdentity;
+        this.newIdentity = newIdentity;
+    }
+
+    public Type getType() {
+        if (oldHash == null) return Type.ADDED;
+        if (newHash == null) return Type.DELETED;
+        if (!path.equals(oldPath)) return Type.RENAMED;
+        return Type.MODIFIED;
+    }
+
+    /** Path on the new side, or the removed path for deletions. */
+    public String getPath() {
+        return path;
+    }
+
+    /** Path on the old side; differs from {@link #getPath()} only for renames. */
+    public String getOldPath() {
+        return oldPath;
+    }
+
+    public String getOldHash() {
+        return oldHash;
+    }
+
+    public String getNewHash() {
+        return newHash;
+    }
+
+    public String getOldIdentity() {
+        return oldIdentity;
+    }
+
+    public String getNewIdentity() {
+        return newIdentity;
+    }
+
+    /** Follows this change with a later one touching the same path. */
+    FileChange then(FileChange next) {
+        return new FileChange(next.path, oldPath, oldHash, next.newHash, oldIdentity, next.newIdentity);
+    }
+
+    FileChange inverse() {
+        return new FileChange(oldPath, path, newHash, oldHash, newIdentity, oldIdentity);
+    }
+
+    boolean isNoOp() {
+        return path.equals(oldPath) && Objects.equals(oldHash, newHash);
+    }
+}
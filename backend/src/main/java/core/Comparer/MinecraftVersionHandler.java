@@ -12,6 +12,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Autowired;
+import core.Metrics.PipelineMetrics;
 
 @Service
 public class MinecraftVersionHandler implements VersionHandlerService {
@@ -23,6 +24,12 @@ public class MinecraftVersionHandler implements VersionHandlerService {
     private String cleanVersion;
     private String mcVersion;
 
+    @Autowired
+    private VersionChainService versionChainService;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
     @PostConstruct
     public void init() {
         createRequiredDirectories();
@@ -72,15 +79,19 @@ public class MinecraftVersionHandler implements VersionHandlerService {
             List<String> addedFiles = new ArrayList<>();
             List<String> modifiedFiles = new ArrayList<>();
             List<String> deletedFiles = new ArrayList<>();
+            List<String> renamedFiles = new ArrayList<>();
 
-            // Get statistics and populate file lists
-            Map<String, Integer> stats = collectChangeStatistics(oldVersionPath, newVersionPath, 
-                addedFiles, modifiedFiles, deletedFiles);
+            // Get statistics and populate file lists from the composed version chain
+            Map<String, Integer> stats = pipelineMetrics.time("diff", () -> collectChangeStatistics(oldVersion, newVersion,
+                addedFiles, modifiedFiles, deletedFiles, renamedFiles));
 
             logChangeStatistics(stats);
             generateMeldDiff(oldVersionPath, newVersionPath);
-            generateTextReport(oldVersionPath, newVersionPath, stats, 
-                addedFiles, modifiedFiles, deletedFiles);
+            pipelineMetrics.time("report", () -> {
+                generateTextReport(oldVersionPath, newVersionPath, stats, 
+                    addedFiles, modifiedFiles, deletedFiles, renamedFiles);
+                return null;
+            });
 
             LOGGER.info("Version comparison completed successfully");
         } catch (Exception e) {
@@ -88,57 +99,31 @@ public class MinecraftVersionHandler implements VersionHandlerService {
         }
     }
 
-    private Map<String, Integer> collectChangeStatistics(Path oldPath, Path newPath,
-            List<String> addedFiles, List<String> modifiedFiles, List<String> deletedFiles) throws IOException {
+    private Map<String, Integer> collectChangeStatistics(String oldVersion, String newVersion,
+            List<String> addedFiles, List<String> modifiedFiles, List<String> deletedFiles,
+            List<String> renamedFiles) throws IOException {
         Map<String, Integer> stats = new HashMap<>();
-        
-        stats.put("added", 0);
-        stats.put("modified", 0);
-        stats.put("deleted", 0);
-
-        // Count added and modified files
-        try (Stream<Path> newFiles = Files.walk(newPath)) {
-            newFiles.filter(Files::isRegularFile).forEach(newFile -> {
-                Path relativePath = newPath.relativize(newFile);
-                Path oldFile = oldPath.resolve(relativePath);
-                String fullPath = newFile.toAbsolutePath().toString();
-                
-                if (!Files.exists(oldFile)) {
-                    stats.put("added", stats.get("added") + 1);
-                    addedFiles.add(relativePath.toString() + "|" + fullPath);
-                } else if (filesAreDifferent(oldFile, newFile)) {
-                    stats.put("modified", stats.get("modified") + 1);
-                    modifiedFiles.add(relativePath.toString() + "|" + fullPath);
-                }
-            });
-        }
+        VersionDelta delta = versionChainService.diff(oldVersion, newVersion);
+        Path oldPath = versionChainService.getVersionPath(oldVersion);
+        Path newPath = versionChainService.getVersionPath(newVersion);
 
-        // Count deleted files
-        try (Stream<Path> oldFiles = Files.walk(oldPath)) {
-            oldFiles.filter(Files::isRegularFile).forEach(oldFile -> {
-                Path relativePath = oldPath.relativize(oldFile);
-                Path newFile = newPath.resolve(relativePath);
-                String fullPath = oldFile.toAbsolutePath().toString();
-                
-                if (!Files.exists(newFile)) {
-                    stats.put("deleted", stats.get("deleted") + 1);
-                    deletedFiles.add(relativePath.toString() + "|" + fullPath);
-                }
-            });
+        for (FileChange change : delta.getChanges()) {
+            switch (change.getType()) {
+                case ADDED -> addedFiles.add(change.getPath() + "|" + newPath.resolve(change.getPath()).toAbsolutePath());
+                case MODIFIED -> modifiedFiles.add(change.getPath() + "|" + newPath.resolve(change.getPath()).toAbsolutePath());
+                case DELETED -> deletedFiles.add(change.getPath() + "|" + oldPath.resolve(change.getPath()).toAbsolutePath());
+                case RENAMED -> renamedFiles.add(change.getOldPath() + "|" + change.getPath());
+            }
         }
 
+        stats.put("added", addedFiles.size());
+        stats.put("modified", modifiedFiles.size());
+        stats.put("deleted", deletedFiles.size());
+        stats.put("renamed", renamedFiles.size());
+        pipelineMetrics.recordDiffSize(delta.size());
         return stats;
     }
 
-    private boolean filesAreDifferent(Path file1, Path file2) {
-        try {
-            return Files.mismatch(file1, file2) != -1;
-        } catch (IOException e) {
-            LOGGER.error("Error comparing files: {}", e.getMessage());
-            return true;
-        }
-    }
-
     private void generateMeldDiff(Path oldPath, Path newPath) {
         try {
             ProcessBuilder pb = new ProcessBuilder(
@@ -163,7 +148,8 @@ public class MinecraftVersionHandler implements VersionHandlerService {
     }
 
     private void generateTextReport(Path oldPath, Path newPath, Map<String, Integer> stats, 
-            List<String> addedFiles, List<String> modifiedFiles, List<String> deletedFiles) {
+            List<String> addedFiles, List<String> modifiedFiles, List<String> deletedFiles,
+            List<String> renamedFiles) {
         try {
             String timestamp = String.valueOf(System.currentTimeMillis());
             Path reportPath = Paths.get(DIFF_OUTPUT_DIR, 
@@ -184,8 +170,9 @@ public class MinecraftVersionHandler implements VersionHandlerService {
                 writer.write(String.format("Added files: %d\n", stats.get("added")));
                 writer.write(String.format("Modified files: %d\n", stats.get("modified")));
                 writer.write(String.format("Deleted files: %d\n", stats.get("deleted")));
+                writer.write(String.format("Renamed files: %d\n", stats.get("renamed")));
                 writer.write(String.format("Total changes: %d\n\n", 
-                    stats.get("added") + stats.get("modified") + stats.get("deleted")));
+                    stats.get("added") + stats.get("modified") + stats.get("deleted") + stats.get("renamed")));
 
                 // Write added files with content
                 writer.write("=== Added Files Content ===\n");
@@ -233,8 +220,25 @@ public class MinecraftVersionHandler implements VersionHandlerService {
                     writer.write(Files.readString(oldFilePath) + "\n");
                     writer.write("========================================\n\n");
                 }
+
+                // Write renamed files, old content first then the new one
+                writer.write("=== Renamed Files Content ===\n");
+                for (String file : renamedFiles) {
+                    String[] parts = file.split("\\|");
+                    writer.write("\nFile: " + parts[0] + " -> " + parts[1] + "\n");
+                    writer.write("----------------------------------------\n");
+
+                    writer.write("Old Version (" + oldPath.getFileName() + "):\n");
+                    writer.write(Files.readString(oldPath.resolve(parts[0])) + "\n");
+                    writer.write("----------------------------------------\n");
+
+                    writer.write("New Version (" + newPath.getFileName() + "):\n");
+                    writer.write(Files.readString(newPath.resolve(parts[1])) + "\n");
+                    writer.write("========================================\n\n");
+                }
             }
             
+            pipelineMetrics.recordReportBytes("version_diff", Files.size(reportPath));
             LOGGER.info("Generated detailed diff report with file contents: {}", reportPath);
         } catch (IOException e) {
             LOGGER.error("Failed to generate text report: {}", e.getMessage());
@@ -242,7 +246,7 @@ public class MinecraftVersionHandler implements VersionHandlerService {
     }
 
     private void logChangeStatistics(Map<String, Integer> stats) {
-        int totalChanges = stats.get("added") + stats.get("modified") + stats.get("deleted");
+        int totalChanges = stats.get("added") + stats.get("modified") + stats.get("deleted") + stats.get("renamed");
         
         // Log summary first
         LOGGER.info("\n=== Change Statistics Summary ===");
@@ -250,6 +254,7 @@ public class MinecraftVersionHandler implements VersionHandlerService {
         LOGGER.info("  - Added:    {}", stats.get("added"));
         LOGGER.info("  - Modified: {}", stats.get("modified"));
         LOGGER.info("  - Deleted:  {}", stats.get("deleted"));
+        LOGGER.info("  - Renamed:  {}", stats.get("renamed"));
         
         // Then log file details
         LOGGER.info("\n=== Detailed File Changes ===");
@@ -0,0 +1,295 @@
+package core.Comparer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import core.Metrics.PipelineMetrics;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps one delta per adjacent pair of bundled versions and composes them into
+ * any A->B change set on demand. Memory grows with the number of versions rather
+ * than the number of version pairs; composed results are kept in a small LRU cache.
+ * Everything cached is dropped when a version directory is added, removed or replaced.
+ */
+@Service
+public class VersionChainService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VersionChainService.class);
+    private static final String VERSIONS_DIR = "versions";
+    private static final String MAPPING_EXTENSION = ".mapping";
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Map<String, VersionDelta> adjacentDeltas = new ConcurrentHashMap<>();
+    private final Map<String, VersionDelta> composedCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, VersionDelta> eldest) {
+            return size() > composedCacheLimit;
+        }
+    };
+
+    private volatile List<String> versionChain;
+    // One slot per bundled version keeps the cache linear in the chain length
+    private volatile int composedCacheLimit = 1;
+    private WatchService versionWatcher;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    /** Bundled versions found under {@value #VERSIONS_DIR}, oldest first. */
+    public List<String> getVersionChain() {
+        List<String> chain = versionChain;
+        if (chain == null) {
+            chain = scanVersions();
+            composedCacheLimit = Math.max(chain.size(), 1);
+            versionChain = chain;
+        }
+        return chain;
+    }
+
+    public boolean isKnownVersion(String version) {
+        return getVersionChain().contains(version);
+    }
+
+    /**
+     * Net changes going from one bundled version to another. Downgrades are served
+     * by inverting the forward composition.
+     */
+    public VersionDelta diff(String fromVersion, String toVersion) throws IOException {
+        List<String> chain = getVersionChain();
+        int from = chain.indexOf(fromVersion);
+        int to = chain.indexOf(toVersion);
+        if (from < 0 || to < 0) {
+            throw new IllegalArgumentException(
+                String.format("Unknown version pair %s -> %s (known: %s)", fromVersion, toVersion, chain));
+        }
+
+        if (from > to) {
+            return diff(toVersion, fromVersion).inverse();
+        }
+
+        String key = fromVersion + "->" + toVersion;
+        synchronized (composedCache) {
+            VersionDelta cached = composedCache.get(key);
+            pipelineMetrics.recordCacheAccess("composed_delta", cached != null);
+            if (cached != null) {
+                LOGGER.debug("Using cached version delta {}", key);
+                return cached;
+            }
+        }
+
+        List<VersionDelta> steps = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            steps.add(getAdjacentDelta(chain.get(i), chain.get(i + 1)));
+        }
+
+        VersionDelta composed = steps.isEmpty()
+            ? new VersionDelta(fromVersion, toVersion, List.of())
+            : VersionDelta.compose(steps);
+        LOGGER.info("Composed {} version step(s) into {} changes for {}", steps.size(), composed.size(), key);
+
+        synchronized (composedCache) {
+            composedCache.put(key, composed);
+        }
+        return composed;
+    }
+
+    public Path getVersionPath(String version) {
+        return Paths.get(VERSIONS_DIR, version);
+    }
+
+    /** Drops every cached delta, e.g. after a version directory has been replaced. */
+    public void invalidate() {
+        adjacentDeltas.clear();
+        synchronized (composedCache) {
+            composedCache.clear();
+        }
+        versionChain = null;
+    }
+
+    /**
+     * Invalidates the caches whenever an entry directly under {@value #VERSIONS_DIR}
+     * changes. Edits deeper inside a version directory are not watched.
+     */
+    @PostConstruct
+    public void watchVersions() {
+        Path versionsDir = Paths.get(VERSIONS_DIR);
+        try {
+            // MinecraftVersionHandler only creates it after this has run on a fresh deployment
+            Files.createDirectories(versionsDir);
+            versionWatcher = versionsDir.getFileSystem().newWatchService();
+            versionsDir.register(versionWatcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            LOGGER.warn("Cannot watch {} for changes: {}", versionsDir.toAbsolutePath(), e.getMessage());
+            return;
+        }
+
+        Thread thread = new Thread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = versionWatcher.take();
+                    List<WatchEvent<?>> events = key.pollEvents();
+                    LOGGER.info("Versions directory changed ({} event(s)), dropping cached deltas", events.size());
+                    invalidate();
+                    if (!key.reset()) {
+                        LOGGER.warn("Versions directory is no longer watched");
+                        return;
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // Shutting down
+            }
+        }, "version-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stopWatching() throws IOException {
+        if (versionWatcher != null) {
+            versionWatcher.close();
+        }
+    }
+
+    private VersionDelta getAdjacentDelta(String oldVersion, String newVersion) throws IOException {
+        String key = oldVersion + "->" + newVersion;
+        VersionDelta delta = adjacentDeltas.get(key);
+        pipelineMetrics.recordCacheAccess("adjacent_delta", delta != null);
+        if (delta == null) {
+            delta = computeAdjacentDelta(oldVersion, newVersion);
+            adjacentDeltas.putIfAbsent(key, delta);
+        }
+        return delta;
+    }
+
+    private VersionDelta computeAdjacentDelta(String oldVersion, String newVersion) throws IOException {
+        Path oldPath = getVersionPath(oldVersion);
+        Path newPath = getVersionPath(newVersion);
+        List<FileChange> changes = new ArrayList<>();
+
+        LOGGER.info("Computing adjacent version delta {} -> {}", oldVersion, newVersion);
+
+        try (Stream<Path> newFiles = Files.walk(newPath)) {
+            for (Path newFile : (Iterable<Path>) newFiles.filter(Files::isRegularFile)::iterator) {
+                Path relativePath = newPath.relativize(newFile);
+                Path oldFile = oldPath.resolve(relativePath);
+                String path = normalize(relativePath);
+
+                if (!Files.exists(oldFile)) {
+                    String newHash = hash(newFile);
+                    changes.add(new FileChange(path, path, null, newHash, null, identity(newFile, newHash)));
+                } else if (Files.mismatch(oldFile, newFile) != -1) {
+                    String oldHash = hash(oldFile);
+                    String newHash = hash(newFile);
+                    changes.add(new FileChange(path, path, oldHash, newHash,
+                        identity(oldFile, oldHash), identity(newFile, newHash)));
+                }
+            }
+        }
+
+        try (Stream<Path> oldFiles = Files.walk(oldPath)) {
+            for (Path oldFile : (Iterable<Path>) oldFiles.filter(Files::isRegularFile)::iterator) {
+                Path relativePath = oldPath.relativize(oldFile);
+                if (!Files.exists(newPath.resolve(relativePath))) {
+                    String path = normalize(relativePath);
+                    String oldHash = hash(oldFile);
+                    changes.add(new FileChange(path, path, oldHash, null, identity(oldFile, oldHash), null));
+                }
+            }
+        }
+
+        return new VersionDelta(oldVersion, newVersion, changes);
+    }
+
+    private List<String> scanVersions() {
+        Path versionsDir = Paths.get(VERSIONS_DIR);
+        if (!Files.isDirectory(versionsDir)) {
+            LOGGER.warn("Versions directory not found: {}", versionsDir.toAbsolutePath());
+            return List.of();
+        }
+
+        try (Stream<Path> dirs = Files.list(versionsDir)) {
+            List<String> versions = dirs.filter(Files::isDirectory)
+                .map(path -> path.getFileName().toString())
+                .sorted(VersionChainService::compareVersions)
+                .collect(Collectors.toUnmodifiableList());
+            LOGGER.info("Bundled version chain: {}", versions);
+            return versions;
+        } catch (IOException e) {
+            LOGGER.error("Failed to list versions: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    static int compareVersions(String a, String b) {
+        String[] left = a.split("\\.");
+        String[] right = b.split("\\.");
+        for (int i = 0; i < Math.max(left.length, right.length); i++) {
+            String l = i < left.length ? left[i] : "0";
+            String r = i < right.length ? right[i] : "0";
+            int cmp;
+            try {
+                cmp = Integer.compare(Integer.parseInt(l), Integer.parseInt(r));
+            } catch (NumberFormatException e) {
+                cmp = l.compareTo(r);
+            }
+            if (cmp != 0) return cmp;
+        }
+        return 0;
+    }
+
+    private static String normalize(Path relativePath) {
+        return relativePath.toString().replace('\\', '/');
+    }
+
+    /**
+     * Yarn mapping files get renamed together with their class, so pair them by the
+     * intermediary name on their CLASS line instead of their content.
+     */
+    private static String identity(Path file, String hash) throws IOException {
+        if (!file.getFileName().toString().endsWith(MAPPING_EXTENSION)) {
+            return hash;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String header = reader.readLine();
+            if (header != null && header.startsWith("CLASS ")) {
+                String[] parts = header.split(" ");
+                if (parts.length > 1) {
+                    return parts[1];
+                }
+            }
+        }
+        return hash;
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int len;
+            while ((len = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, len);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
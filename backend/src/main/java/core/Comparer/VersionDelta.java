@@ -0,0 +1,104 @@
+package core.Comparer;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Net file changes between two versions. Adjacent deltas are built once from
+ * disk, every other pair is composed from them so that multi-hop chains such as
+ * "renamed in 1.21.2, removed in 1.21.4" collapse to a single deletion.
+ */
+public final class VersionDelta {
+    private final String fromVersion;
+    private final String toVersion;
+    private final List<FileChange> changes;
+
+    VersionDelta(String fromVersion, String toVersion, Collection<FileChange> changes) {
+        this.fromVersion = fromVersion;
+        this.toVersion = toVersion;
+        this.changes = changes.stream()
+            .sorted(Comparator.comparing(FileChange::getPath))
+            .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Composes consecutive deltas (a->b, b->c, ...) into their net effect and pairs
+     * deletions with additions of the same identity as renames.
+     */
+    static VersionDelta compose(List<VersionDelta> steps) {
+        if (steps.isEmpty()) {
+            throw new IllegalArgumentException("Cannot compose an empty version chain");
+        }
+
+        Map<String, FileChange> byPath = new HashMap<>();
+        for (VersionDelta step : steps) {
+            for (FileChange change : step.changes) {
+                byPath.merge(change.getPath(), change, FileChange::then);
+            }
+        }
+        byPath.values().removeIf(FileChange::isNoOp);
+
+        String from = steps.get(0).fromVersion;
+        String to = steps.get(steps.size() - 1).toVersion;
+        return new VersionDelta(from, to, pairRenames(byPath.values()));
+    }
+
+    private static List<FileChange> pairRenames(Collection<FileChange> changes) {
+        Map<String, Deque<FileChange>> deletedByIdentity = new HashMap<>();
+        for (FileChange change : changes) {
+            if (change.getType() == FileChange.Type.DELETED && change.getOldIdentity() != null) {
+                deletedByIdentity.computeIfAbsent(change.getOldIdentity(), k -> new ArrayDeque<>()).add(change);
+            }
+        }
+
+        List<FileChange> result = new ArrayList<>(changes.size());
+        Set<FileChange> consumed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (FileChange change : changes) {
+            if (change.getType() != FileChange.Type.ADDED) continue;
+
+            Deque<FileChange> candidates = deletedByIdentity.get(change.getNewIdentity());
+            FileChange deleted = candidates != null ? candidates.poll() : null;
+            if (deleted == null) {
+                result.add(change);
+                continue;
+            }
+
+            consumed.add(deleted);
+            result.add(new FileChange(change.getPath(), deleted.getOldPath(), deleted.getOldHash(),
+                change.getNewHash(), deleted.getOldIdentity(), change.getNewIdentity()));
+        }
+        for (FileChange change : changes) {
+            if (change.getType() != FileChange.Type.ADDED && !consumed.contains(change)) {
+                result.add(change);
+            }
+        }
+        return result;
+    }
+
+    VersionDelta inverse() {
+        return new VersionDelta(toVersion, fromVersion,
+            changes.stream().map(FileChange::inverse).collect(Collectors.toList()));
+    }
+
+    public String getFromVersion() {
+        return fromVersion;
+    }
+
+    public String getToVersion() {
+        return toVersion;
+    }
+
+    public List<FileChange> getChanges() {
+        return changes;
+    }
+
+    public List<FileChange> getChanges(FileChange.Type type) {
+        return changes.stream()
+            .filter(change -> change.getType() == type)
+            .collect(Collectors.toList());
+    }
+
+    public int size() {
+        return changes.size();
+    }
+}
@@ -0,0 +1,48 @@
+package core.Comparer;
+
+import java.util.*;
+
+/**
+ * Symbol index over a version delta: maps the intermediary name of every class whose
+ * yarn mapping changed to that change. Built once per version pair and shared by every
+ * mod checked against the same pair.
+ */
+public final class VersionImpact {
+    private static final String MAPPING_EXTENSION = ".mapping";
+
+    private final VersionDelta delta;
+    private final Map<String, FileChange> changesByClass;
+
+    private VersionImpact(VersionDelta delta, Map<String, FileChange> changesByClass) {
+        this.delta = delta;
+        this.changesByClass = changesByClass;
+    }
+
+    public static VersionImpact of(VersionDelta delta) {
+        Map<String, FileChange> changesByClass = new HashMap<>();
+        for (FileChange change : delta.getChanges()) {
+            if (!change.getPath().endsWith(MAPPING_EXTENSION)) continue;
+
+            String identity = change.getNewIdentity() != null ? change.getNewIdentity() : change.getOldIdentity();
+            // Identities fall back to content hashes when the CLASS header is missing
+            if (identity != null && identity.indexOf('/') >= 0) {
+                changesByClass.put(identity, change);
+            }
+        }
+        return new VersionImpact(delta, Collections.unmodifiableMap(changesByClass));
+    }
+
+    public VersionDelta getDelta() {
+        return delta;
+    }
+
+    /** Change affecting the given internal class name, nested classes resolve to their outer class. */
+    public FileChange lookup(String internalName) {
+        int nested = internalName.indexOf('$');
+        return changesByClass.get(nested < 0 ? internalName : internalName.substring(0, nested));
+    }
+
+    public int size() {
+        return changesByClass.size();
+    }
+}
@@ -10,4 +10,5 @@ public class DirectoryConfig {
     public static final String UPLOAD_DIR = Paths.get(BASE_DIR, "uploaded_mods").toString();
     public static final String DECOMPILED_DIR = Paths.get(BASE_DIR, "decompiled_mods").toString();
     public static final String DIFF_DIR = Paths.get(BASE_DIR, "diff_results").toString();
+    public static final String BATCH_DIR = Paths.get(BASE_DIR, "batches").toString();
 }
\ No newline at end of file
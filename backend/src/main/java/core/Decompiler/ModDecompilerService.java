@@ -10,21 +10,16 @@ import core.Extracter.ExtractJson;
 import core.Event.DecompilationCompleteEvent;
 import org.springframework.web.multipart.MultipartFile;
 import core.Config.DirectoryConfig;
+import core.Metrics.PipelineMetrics;
 
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.stream.Stream;
-import jakarta.annotation.PreDestroy;
 import java.util.Optional;
 import java.util.Comparator;
 
@@ -36,11 +31,9 @@ public class ModDecompilerService {
     private static final String DECOMPILED_DIR = BASE_DIR + "/decompiled_mods";
     private static final Pattern VERSION_PATTERN = Pattern.compile("_(\\d+)\\.");
     private static final int BUFFER_SIZE = 8192;
-    private static final int THREAD_POOL_SIZE = Runtime.getRuntime().availableProcessors();
     private static final String MINECRAFT_DEPS_DIR = "minecraft_deps";
 
     private String currentModName;
-    private final ExecutorService executorService = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
 
     @Autowired
     private ApplicationEventPublisher eventPublisher;
@@ -48,6 +41,9 @@ public class ModDecompilerService {
     @Autowired
     private ExtractJson extractJson;
 
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
     public ModDecompilerService() {
         createRequiredDirectories();
     }
@@ -241,19 +237,6 @@ public class ModDecompilerService {
         }
     }
 
-    @PreDestroy
-    public void cleanup() {
-        executorService.shutdown();
-        try {
-            if (!executorService.awaitTermination(60, TimeUnit.SECONDS)) {
-                executorService.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            executorService.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
-    }
-
     public String getDecompiledPath() {
         return DECOMPILED_DIR;
     }
@@ -263,28 +246,48 @@ public class ModDecompilerService {
     }
 
     private void decompileMod(Path modPath) {
+        extractMod(modPath, Paths.get(DirectoryConfig.DECOMPILED_DIR));
+    }
+
+    /**
+     * Unpacks a mod jar into {@code outputRoot/<jar name>} and returns that directory.
+     */
+    public Path extractMod(Path modPath, Path outputRoot) {
         try {
             String fileName = modPath.getFileName().toString();
-            Path outputDir = Paths.get(DirectoryConfig.DECOMPILED_DIR, fileName.replace(".jar", ""));
+            Path outputDir = outputRoot.resolve(fileName.replace(".jar", "")).normalize();
             
             if (!Files.exists(outputDir)) {
                 Files.createDirectories(outputDir);
             }
 
+            int entries = 0;
+            int classes = 0;
             try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(modPath))) {
                 ZipEntry entry;
                 while ((entry = zis.getNextEntry()) != null) {
-                    Path entryPath = outputDir.resolve(entry.getName());
+                    Path entryPath = outputDir.resolve(entry.getName()).normalize();
+                    if (!entryPath.startsWith(outputDir)) {
+                        logger.warn("Skipping entry outside of output directory: {}", entry.getName());
+                        continue;
+                    }
                     
                     if (entry.isDirectory()) {
                         Files.createDirectories(entryPath);
                     } else {
                         Files.createDirectories(entryPath.getParent());
                         Files.copy(zis, entryPath, StandardCopyOption.REPLACE_EXISTING);
+                        entries++;
+                        if (entry.getName().endsWith(".class")) {
+                            classes++;
+                        }
                     }
                 }
             }
+            pipelineMetrics.recordEntriesExtracted(entries);
+            pipelineMetrics.recordClassesDecompiled(classes);
             logger.info("Decompiled mod to: {}", outputDir);
+            return outputDir;
         } catch (IOException e) {
             logger.error("Error decompiling mod: {}", e.getMessage());
             throw new RuntimeException("Failed to decompile mod", e);
@@ -2,6 +2,7 @@ package core.Extracter;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import org.slf4j.Logger;
@@ -118,6 +119,33 @@ public class ExtractJson {
         saveJsonFile(modJsonFile, modJson);
     }
 
+    /**
+     * Reads the Minecraft dependency of an extracted mod without touching the shared
+     * version handler state, so several mods can be inspected concurrently.
+     */
+    public String readMinecraftVersion(File modDir) throws IOException {
+        File modJsonFile = new File(modDir, MOD_JSON_FILE);
+        if (!modJsonFile.exists()) {
+            return null;
+        }
+
+        JsonObject modJson = readJsonFile(modJsonFile);
+        if (!modJson.has("depends") || !modJson.getAsJsonObject("depends").has("minecraft")) {
+            return null;
+        }
+
+        JsonElement minecraft = modJson.getAsJsonObject("depends").get("minecraft");
+        if (minecraft.isJsonArray()) {
+            if (minecraft.getAsJsonArray().isEmpty()) {
+                return null;
+            }
+            minecraft = minecraft.getAsJsonArray().get(0);
+        }
+
+        String cleaned = minecraft.getAsString().replaceAll("[>=<~^]", "").trim();
+        return cleaned.isEmpty() ? null : cleaned;
+    }
+
     private JsonObject readJsonFile(File file) throws IOException {
         String content = Files.readString(file.toPath());
         LOGGER.debug("Reading file content:\n{}", content);
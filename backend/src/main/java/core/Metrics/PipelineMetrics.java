@@ -0,0 +1,114 @@
+package core.Metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Micrometer meters for the mod pipeline, scraped through {@code /actuator/prometheus}.
+ * Stage timers share one name and are told apart by the {@code stage} tag so the
+ * dominant stage can be read straight off a single histogram.
+ */
+@Component
+public class PipelineMetrics {
+    private static final String PREFIX = "modupdater.";
+
+    @Autowired
+    private MeterRegistry registry;
+
+    /**
+     * Times a pipeline stage, tagging the sample with its outcome.
+     */
+    public <T> T time(String stage, Callable<T> task) throws Exception {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            return task.call();
+        } catch (Exception e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(PREFIX + "pipeline.stage")
+                .description("Time spent in a mod pipeline stage")
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry));
+        }
+    }
+
+    public void recordUploadBytes(long bytes) {
+        bytesSummary("upload.bytes", "Size of uploaded mod jars").record(bytes);
+    }
+
+    public void recordEntriesExtracted(int entries) {
+        counter("extract.entries", "Jar entries extracted").increment(entries);
+    }
+
+    public void recordClassesDecompiled(int classes) {
+        counter("decompile.classes", "Class files processed by the decompile stage").increment(classes);
+    }
+
+    public void recordFilesScanned(int files) {
+        counter("scan.files", "Mod files scanned for the mod report").increment(files);
+    }
+
+    public void recordDiffSize(int changes) {
+        DistributionSummary.builder(PREFIX + "diff.changes")
+            .description("Changed files in a version comparison")
+            .register(registry)
+            .record(changes);
+    }
+
+    public void recordReportBytes(String report, long bytes) {
+        DistributionSummary.builder(PREFIX + "report.bytes")
+            .description("Size of generated reports")
+            .baseUnit("bytes")
+            .tag("report", report)
+            .register(registry)
+            .record(bytes);
+    }
+
+    public void recordCacheAccess(String cache, boolean hit) {
+        Counter.builder(PREFIX + "cache.requests")
+            .description("Cache lookups by result")
+            .tag("cache", cache)
+            .tag("result", hit ? "hit" : "miss")
+            .register(registry)
+            .increment();
+    }
+
+    public void recordRejection(String stage) {
+        Counter.builder(PREFIX + "pipeline.rejected")
+            .description("Tasks refused by admission control")
+            .tag("stage", stage)
+            .register(registry)
+            .increment();
+    }
+
+    public <T> void gauge(String name, String stage, T target, ToDoubleFunction<T> value) {
+        Gauge.builder(PREFIX + name, target, value)
+            .tag("stage", stage)
+            .register(registry);
+    }
+
+    private Counter counter(String name, String description) {
+        return Counter.builder(PREFIX + name)
+            .description(description)
+            .register(registry);
+    }
+
+    private DistributionSummary bytesSummary(String name, String description) {
+        return DistributionSummary.builder(PREFIX + name)
+            .description(description)
+            .baseUnit("bytes")
+            .register(registry);
+    }
+}
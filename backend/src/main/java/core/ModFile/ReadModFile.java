@@ -6,6 +6,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.context.event.EventListener;
 import core.Event.DecompilationCompleteEvent;
 import core.Config.DirectoryConfig;
+import core.Metrics.PipelineMetrics;
 
 import java.io.FileWriter;
 import java.io.IOException;
@@ -25,6 +26,7 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Autowired;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
@@ -65,11 +67,14 @@ public class ReadModFile {
         "fabric.mod.json"    // Fabric mod metadata (contains mapping references)
     );
 
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
     @EventListener
-    public void handleDecompilationComplete(DecompilationCompleteEvent event) {
+    public void handleDecompilationComplete(DecompilationCompleteEvent event) throws Exception {
         Path modPath = event.getModPath();
         LOGGER.info("Received decompilation complete event for mod: {}", modPath.getFileName());
-        scanModFiles(modPath);
+        pipelineMetrics.time("scan", () -> scanModFiles(modPath));
     }
 
     public List<ModFile> scanModFiles(Path modPath) {
@@ -99,6 +104,7 @@ public class ReadModFile {
                 });
 
             appendToVersionDiffFile(modFiles, modPath.getFileName().toString());
+            pipelineMetrics.recordFilesScanned(modFiles.size());
             LOGGER.info("Scanned {} files from mod: {}", modFiles.size(), modPath.getFileName());
             return modFiles;
         } catch (IOException e) {
@@ -173,6 +179,7 @@ public class ReadModFile {
             });
         }
         
+        pipelineMetrics.recordReportBytes("mod_files", Files.size(reportPath));
         LOGGER.info("Generated mod files report: {}", reportPath);
     }
 
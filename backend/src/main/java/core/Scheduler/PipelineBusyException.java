@@ -0,0 +1,23 @@
+package core.Scheduler;
+
+/**
+ * Thrown when a pipeline stage cannot admit more work, surfaced as 429 with Retry-After.
+ */
+public class PipelineBusyException extends RuntimeException {
+    private final PipelineStage stage;
+    private final long retryAfterSeconds;
+
+    public PipelineBusyException(PipelineStage stage, String reason, long retryAfterSeconds) {
+        super(String.format("Pipeline stage '%s' is busy: %s", stage.getId(), reason));
+        this.stage = stage;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public PipelineStage getStage() {
+        return stage;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,218 @@
+package core.Scheduler;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import core.Metrics.PipelineMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs pipeline work on bounded, per-stage pools sized from the container's CPU and
+ * heap limits. Work is only admitted while the stage queue has room and the stage
+ * memory budget covers the task's estimate; otherwise {@link PipelineBusyException}
+ * is thrown so the caller can answer 429 instead of running the container out of memory.
+ * <p>
+ * With {@code pipeline.virtual-threads.enabled} on a Java 21 runtime the I/O stage runs
+ * each task on its own virtual thread, bounded by a concurrency limit instead of a pool,
+ * while the CPU-bound stages keep their fixed carrier pools.
+ */
+@Component
+public class PipelineScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(PipelineScheduler.class);
+    private static final long KILOBYTE = 1024L;
+
+    @Value("${pipeline.io.threads:0}")
+    private int ioThreads;
+
+    @Value("${pipeline.decompile.threads:0}")
+    private int decompileThreads;
+
+    @Value("${pipeline.diff.threads:0}")
+    private int diffThreads;
+
+    @Value("${pipeline.queue.capacity:32}")
+    private int queueCapacity;
+
+    @Value("${pipeline.retry-after-seconds:30}")
+    private long retryAfterSeconds;
+
+    @Value("${pipeline.virtual-threads.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${pipeline.virtual-threads.io-concurrency:256}")
+    private int virtualIoConcurrency;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    private final Map<PipelineStage, ExecutorService> executors = new EnumMap<>(PipelineStage.class);
+    private final Map<PipelineStage, Integer> parallelism = new EnumMap<>(PipelineStage.class);
+    private final Map<PipelineStage, Semaphore> concurrencyLimits = new EnumMap<>(PipelineStage.class);
+    private final Map<PipelineStage, Semaphore> memoryBudgets = new EnumMap<>(PipelineStage.class);
+    private final Map<PipelineStage, Integer> budgetKilobytes = new EnumMap<>(PipelineStage.class);
+
+    @PostConstruct
+    public void init() {
+        // Both values respect container limits (--cpus / --memory) on JDK 17
+        int cpus = Runtime.getRuntime().availableProcessors();
+        long maxHeap = Runtime.getRuntime().maxMemory();
+
+        ExecutorService virtualExecutor = virtualThreadsEnabled ? VirtualThreads.newPerTaskExecutor() : null;
+        if (virtualThreadsEnabled && virtualExecutor == null) {
+            logger.warn("Virtual threads requested but not supported by Java {}, using platform threads",
+                Runtime.version().feature());
+        }
+
+        for (PipelineStage stage : PipelineStage.values()) {
+            int threads;
+            if (stage == PipelineStage.IO && virtualExecutor != null) {
+                // Virtual threads have no pool to fill, so admission is bounded by in-flight tasks
+                threads = virtualIoConcurrency;
+                executors.put(stage, virtualExecutor);
+                concurrencyLimits.put(stage, new Semaphore(virtualIoConcurrency));
+            } else {
+                threads = resolveThreads(stage, cpus);
+                ThreadPoolExecutor executor = createExecutor(stage, threads);
+                executors.put(stage, executor);
+                pipelineMetrics.gauge("pipeline.queue.size", stage.getId(), executor, e -> e.getQueue().size());
+                pipelineMetrics.gauge("pipeline.active", stage.getId(), executor, ThreadPoolExecutor::getActiveCount);
+            }
+            parallelism.put(stage, threads);
+
+            int budget = (int) Math.min(Integer.MAX_VALUE, (long) (maxHeap * stage.getHeapShare()) / KILOBYTE);
+            budgetKilobytes.put(stage, budget);
+            memoryBudgets.put(stage, new Semaphore(budget));
+
+            logger.info("Pipeline stage '{}': {} {}, queue {}, memory budget {} MB",
+                stage.getId(), threads, concurrencyLimits.containsKey(stage) ? "virtual threads" : "threads",
+                queueCapacity, budget / KILOBYTE);
+        }
+    }
+
+    /**
+     * Submits a task to a stage. The estimate is held against the stage memory budget
+     * until the task finishes; estimates above the whole budget are clamped so a large
+     * job can still run on its own.
+     *
+     * @throws PipelineBusyException if the stage queue is full or the budget is exhausted
+     */
+    public <T> CompletableFuture<T> submit(PipelineStage stage, long estimatedBytes, Callable<T> task) {
+        int permits = (int) Math.max(1, Math.min(budgetKilobytes.get(stage), estimatedBytes / KILOBYTE));
+        Semaphore budget = memoryBudgets.get(stage);
+        if (!budget.tryAcquire(permits)) {
+            pipelineMetrics.recordRejection(stage.getId());
+            throw new PipelineBusyException(stage, "memory budget exhausted", retryAfterSeconds);
+        }
+
+        Semaphore slots = concurrencyLimits.get(stage);
+        if (slots != null && !slots.tryAcquire()) {
+            budget.release(permits);
+            pipelineMetrics.recordRejection(stage.getId());
+            throw new PipelineBusyException(stage, "too many tasks in flight", retryAfterSeconds);
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executors.get(stage).execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                } finally {
+                    budget.release(permits);
+                    if (slots != null) {
+                        slots.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            budget.release(permits);
+            if (slots != null) {
+                slots.release();
+            }
+            pipelineMetrics.recordRejection(stage.getId());
+            throw new PipelineBusyException(stage, "queue full", retryAfterSeconds);
+        }
+        return future;
+    }
+
+    /**
+     * Submits a task and waits for it, rethrowing the task's own exception.
+     */
+    public <T> T run(PipelineStage stage, long estimatedBytes, Callable<T> task) throws Exception {
+        try {
+            return submit(stage, estimatedBytes, task).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    public int getParallelism(PipelineStage stage) {
+        return parallelism.get(stage);
+    }
+
+    public boolean isVirtual(PipelineStage stage) {
+        return concurrencyLimits.containsKey(stage);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    private int resolveThreads(PipelineStage stage, int cpus) {
+        int configured = switch (stage) {
+            case IO -> ioThreads;
+            case DECOMPILE -> decompileThreads;
+            case DIFF -> diffThreads;
+        };
+        if (configured > 0) {
+            return configured;
+        }
+
+        return switch (stage) {
+            // Blocking file I/O, allow some overlap beyond the core count
+            case IO -> Math.max(2, cpus * 2);
+            case DECOMPILE -> Math.max(1, cpus);
+            case DIFF -> Math.max(1, cpus / 2);
+        };
+    }
+
+    private ThreadPoolExecutor createExecutor(PipelineStage stage, int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "pipeline-" + stage.getId() + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        return new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        executors.values().forEach(ExecutorService::shutdown);
+        try {
+            for (ExecutorService executor : executors.values()) {
+                if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            executors.values().forEach(ExecutorService::shutdownNow);
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package core.Scheduler;
+
+/**
+ * Stages of the mod pipeline that get their own worker pool and memory budget.
+ */
+public enum PipelineStage {
+    /** Uploads, jar extraction and report writing. */
+    IO("io", 0.15),
+    /** CPU-bound decompilation and class scanning. */
+    DECOMPILE("decompile", 0.40),
+    /** Version diffing and report composition. */
+    DIFF("diff", 0.25);
+
+    private final String id;
+    private final double heapShare;
+
+    PipelineStage(String id, double heapShare) {
+        this.id = id;
+        this.heapShare = heapShare;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /** Share of the max heap this stage may hold at once. */
+    public double getHeapShare() {
+        return heapShare;
+    }
+}
@@ -0,0 +1,36 @@
+package core.Scheduler;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to Java 21 virtual threads while the project still compiles for Java 17.
+ */
+final class VirtualThreads {
+    private static final int VIRTUAL_THREADS_FEATURE = 21;
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return Runtime.version().feature() >= VIRTUAL_THREADS_FEATURE;
+    }
+
+    /**
+     * Returns {@code Executors.newVirtualThreadPerTaskExecutor()}, or null if the
+     * running JVM does not support virtual threads.
+     */
+    static ExecutorService newPerTaskExecutor() {
+        if (!isSupported()) {
+            return null;
+        }
+
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
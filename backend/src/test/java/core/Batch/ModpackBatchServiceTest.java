@@ -0,0 +1,83 @@
+package core.Batch;
+
+import core.Comparer.VersionChainService;
+import core.Scheduler.PipelineBusyException;
+import core.Scheduler.PipelineScheduler;
+import core.Scheduler.PipelineStage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ModpackBatchServiceTest {
+
+    @Mock
+    private VersionChainService versionChainService;
+
+    @Mock
+    private PipelineScheduler pipelineScheduler;
+
+    @InjectMocks
+    private ModpackBatchService modpackBatchService;
+
+    @Test
+    void rejectsBatchOnceWindowSettlesWhenIoStageIsFull() throws Exception {
+        when(versionChainService.isKnownVersion("1.21.4")).thenReturn(true);
+        when(pipelineScheduler.run(eq(PipelineStage.IO), anyLong(), any()))
+            .thenAnswer(invocation -> invocation.<Callable<?>>getArgument(2).call());
+        when(pipelineScheduler.getParallelism(PipelineStage.DECOMPILE)).thenReturn(2);
+
+        // The first jar is admitted and still extracting when the second is rejected
+        AtomicInteger submissions = new AtomicInteger();
+        AtomicBoolean firstFinished = new AtomicBoolean();
+        when(pipelineScheduler.submit(eq(PipelineStage.IO), anyLong(), any())).thenAnswer(invocation -> {
+            if (submissions.incrementAndGet() > 1) {
+                throw new PipelineBusyException(PipelineStage.IO, "queue full", 30);
+            }
+            return CompletableFuture.supplyAsync(() -> {
+                sleep(200);
+                firstFinished.set(true);
+                return new File("missing");
+            });
+        });
+
+        List<MultipartFile> files = List.of(jar("a.jar"), jar("b.jar"));
+
+        assertThatThrownBy(() -> modpackBatchService.processBatch(files, null, "1.21.4"))
+            .isInstanceOf(PipelineBusyException.class);
+        // The batch directory must outlive every task still running in it
+        assertThat(firstFinished).isTrue();
+        verify(pipelineScheduler, times(2)).submit(eq(PipelineStage.IO), anyLong(), any());
+    }
+
+    private static MockMultipartFile jar(String name) {
+        return new MockMultipartFile("files", name, "application/java-archive", new byte[] {'P', 'K'});
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
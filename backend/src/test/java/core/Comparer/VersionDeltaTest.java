@@ -0,0 +1,122 @@
+package core.Comparer;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VersionDeltaTest {
+
+    @Test
+    void composesChangesToTheSamePath() {
+        VersionDelta delta = VersionDelta.compose(List.of(
+            step("1.21", "1.21.1", added("a.txt", "h1"), modified("b.txt", "h2", "h3")),
+            step("1.21.1", "1.21.2", modified("a.txt", "h1", "h4"), modified("b.txt", "h3", "h2"))));
+
+        assertThat(delta.getFromVersion()).isEqualTo("1.21");
+        assertThat(delta.getToVersion()).isEqualTo("1.21.2");
+        // b.txt went back to its original content
+        assertThat(delta.getChanges()).hasSize(1);
+        FileChange change = delta.getChanges().get(0);
+        assertThat(change.getType()).isEqualTo(FileChange.Type.ADDED);
+        assertThat(change.getPath()).isEqualTo("a.txt");
+        assertThat(change.getNewHash()).isEqualTo("h4");
+    }
+
+    @Test
+    void dropsFilesAddedAndRemovedWithinTheChain() {
+        VersionDelta delta = VersionDelta.compose(List.of(
+            step("1.21", "1.21.1", added("a.txt", "h1")),
+            step("1.21.1", "1.21.2", deleted("a.txt", "h1"))));
+
+        assertThat(delta.getChanges()).isEmpty();
+    }
+
+    @Test
+    void pairsDeletionAndAdditionOfTheSameIdentityAsRename() {
+        VersionDelta delta = VersionDelta.compose(List.of(
+            step("1.21", "1.21.1", deleted("old.txt", "h1"), added("new.txt", "h1"))));
+
+        assertThat(delta.getChanges()).hasSize(1);
+        FileChange change = delta.getChanges().get(0);
+        assertThat(change.getType()).isEqualTo(FileChange.Type.RENAMED);
+        assertThat(change.getPath()).isEqualTo("new.txt");
+        assertThat(change.getOldPath()).isEqualTo("old.txt");
+    }
+
+    @Test
+    void pairsMappingFilesByClassNameAcrossContentChanges() {
+        VersionDelta delta = VersionDelta.compose(List.of(
+            step("1.21", "1.21.1",
+                new FileChange("a/Old.mapping", "a/Old.mapping", "h1", null, "net/minecraft/class_1", null),
+                new FileChange("b/New.mapping", "b/New.mapping", null, "h2", null, "net/minecraft/class_1"))));
+
+        assertThat(delta.getChanges()).hasSize(1);
+        FileChange change = delta.getChanges().get(0);
+        assertThat(change.getType()).isEqualTo(FileChange.Type.RENAMED);
+        assertThat(change.getOldPath()).isEqualTo("a/Old.mapping");
+        assertThat(change.getOldHash()).isEqualTo("h1");
+        assertThat(change.getNewHash()).isEqualTo("h2");
+    }
+
+    @Test
+    void collapsesRenameThenRemovalToDeletion() {
+        VersionDelta delta = VersionDelta.compose(List.of(
+            step("1.21", "1.21.1", deleted("old.txt", "h1"), added("new.txt", "h1")),
+            step("1.21.1", "1.21.2", deleted("new.txt", "h1"))));
+
+        assertThat(delta.getChanges()).hasSize(1);
+        FileChange change = delta.getChanges().get(0);
+        assertThat(change.getType()).isEqualTo(FileChange.Type.DELETED);
+        assertThat(change.getPath()).isEqualTo("old.txt");
+    }
+
+    @Test
+    void pairsEachDeletionOnlyOnce() {
+        VersionDelta delta = VersionDelta.compose(List.of(
+            step("1.21", "1.21.1", deleted("a.txt", "h1"), deleted("b.txt", "h1"), added("c.txt", "h1"))));
+
+        assertThat(delta.getChanges(FileChange.Type.RENAMED)).hasSize(1);
+        assertThat(delta.getChanges(FileChange.Type.DELETED)).hasSize(1);
+        assertThat(delta.getChanges(FileChange.Type.ADDED)).isEmpty();
+    }
+
+    @Test
+    void inverseRenamesBack() {
+        VersionDelta delta = VersionDelta.compose(List.of(
+            step("1.21", "1.21.1", deleted("old.txt", "h1"), added("new.txt", "h1"), added("extra.txt", "h2"))))
+            .inverse();
+
+        assertThat(delta.getFromVersion()).isEqualTo("1.21.1");
+        assertThat(delta.getToVersion()).isEqualTo("1.21");
+        FileChange rename = delta.getChanges(FileChange.Type.RENAMED).get(0);
+        assertThat(rename.getPath()).isEqualTo("old.txt");
+        assertThat(rename.getOldPath()).isEqualTo("new.txt");
+        assertThat(delta.getChanges(FileChange.Type.DELETED))
+            .extracting(FileChange::getPath)
+            .containsExactly("extra.txt");
+    }
+
+    @Test
+    void rejectsEmptyChain() {
+        assertThatThrownBy(() -> VersionDelta.compose(List.of()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static VersionDelta step(String from, String to, FileChange... changes) {
+        return new VersionDelta(from, to, List.of(changes));
+    }
+
+    private static FileChange added(String path, String hash) {
+        return new FileChange(path, path, null, hash, null, hash);
+    }
+
+    private static FileChange deleted(String path, String hash) {
+        return new FileChange(path, path, hash, null, hash, null);
+    }
+
+    private static FileChange modified(String path, String oldHash, String newHash) {
+        return new FileChange(path, path, oldHash, newHash, oldHash, newHash);
+    }
+}
@@ -0,0 +1,204 @@
+package core.Scheduler;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load-test harness comparing the fixed platform pool model with virtual threads for
+ * the blocking I/O stages of the pipeline.
+ * <p>
+ * {@code executor} mode (default) runs a simulated I/O stage task (write and read back a
+ * temp file plus a fixed latency) at increasing concurrency on both executors.
+ * {@code http} mode fires concurrent GET requests at a running server, e.g. the report
+ * download endpoints, to compare a server started with and without
+ * {@code spring.threads.virtual.enabled}.
+ * It is not a test and Surefire does not run it. It lives in the test sources only so it
+ * is not shipped in the application jar, and runs from the test classpath:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=core.Scheduler.PipelineLoadHarness \
+ *     -Dexec.args="--mode=executor --latency-ms=20"
+ * mvn ... -Dexec.args="--mode=http --url=http://localhost:8080/api/logs/download-diff --concurrency=200 --requests=2000"
+ * </pre>
+ * Virtual-thread runs need a Java 21 runtime and are skipped otherwise.
+ */
+public final class PipelineLoadHarness {
+    private static final int[] DEFAULT_CONCURRENCY = {16, 64, 256, 1024};
+    private static final int TASKS_PER_CLIENT = 4;
+
+    private PipelineLoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        String mode = options.getOrDefault("mode", "executor");
+
+        if (mode.equals("http")) {
+            runHttp(options);
+        } else {
+            runExecutor(options);
+        }
+    }
+
+    private static void runExecutor(Map<String, String> options) throws Exception {
+        int payloadKb = Integer.parseInt(options.getOrDefault("payload-kb", "256"));
+        long latencyMs = Long.parseLong(options.getOrDefault("latency-ms", "20"));
+        int[] levels = options.containsKey("concurrency")
+            ? new int[] {Integer.parseInt(options.get("concurrency"))}
+            : DEFAULT_CONCURRENCY;
+        int cpus = Runtime.getRuntime().availableProcessors();
+        byte[] payload = new byte[payloadKb * 1024];
+        Path workDir = Files.createTempDirectory("pipeline-loadtest");
+
+        System.out.printf("Simulated I/O task: %d KB write/read + %d ms latency, %d cpus, Java %d%n",
+            payloadKb, latencyMs, cpus, Runtime.version().feature());
+        printHeader();
+
+        try {
+            for (int concurrency : levels) {
+                int tasks = concurrency * TASKS_PER_CLIENT;
+                Callable<Void> task = () -> {
+                    Path file = Files.createTempFile(workDir, "task", ".bin");
+                    try {
+                        Files.write(file, payload);
+                        Files.readAllBytes(file);
+                        Thread.sleep(latencyMs);
+                    } finally {
+                        Files.deleteIfExists(file);
+                    }
+                    return null;
+                };
+
+                ExecutorService fixed = Executors.newFixedThreadPool(cpus);
+                printResult("fixed(" + cpus + ")", concurrency, measure(fixed, tasks, task, concurrency));
+
+                ExecutorService virtual = VirtualThreads.newPerTaskExecutor();
+                if (virtual != null) {
+                    printResult("virtual", concurrency, measure(virtual, tasks, task, concurrency));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(workDir);
+        }
+
+        if (!VirtualThreads.isSupported()) {
+            System.out.println("Virtual threads need Java 21, only the fixed pool was measured");
+        }
+    }
+
+    private static void runHttp(Map<String, String> options) throws Exception {
+        URI uri = URI.create(options.getOrDefault("url", "http://localhost:8080/api/health"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+        int requests = Integer.parseInt(options.getOrDefault("requests", String.valueOf(concurrency * TASKS_PER_CLIENT)));
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        AtomicInteger failures = new AtomicInteger();
+        Callable<Void> task = () -> {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                failures.incrementAndGet();
+            }
+            return null;
+        };
+
+        ExecutorService clients = VirtualThreads.newPerTaskExecutor();
+        if (clients == null) {
+            clients = Executors.newFixedThreadPool(concurrency);
+        }
+
+        System.out.printf("GET %s with %d concurrent clients%n", uri, concurrency);
+        printHeader();
+        Result result = measure(clients, requests, task, concurrency);
+        printResult("http", concurrency, result);
+        System.out.printf("Failed responses (>= 400): %d%n", failures.get());
+    }
+
+    /**
+     * Runs {@code tasks} copies of the task with at most {@code inFlight} submitted at once
+     * and records the latency of each from submission to completion.
+     */
+    private static Result measure(ExecutorService executor, int tasks, Callable<Void> task, int inFlight)
+            throws Exception {
+        long[] latencies = new long[tasks];
+        Semaphore window = new Semaphore(inFlight);
+        List<Future<?>> futures = new ArrayList<>(tasks);
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < tasks; i++) {
+            int index = i;
+            window.acquire();
+            long submitted = System.nanoTime();
+            futures.add(executor.submit(() -> {
+                try {
+                    task.call();
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                } finally {
+                    latencies[index] = System.nanoTime() - submitted;
+                    window.release();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long wallNanos = System.nanoTime() - start;
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        Arrays.sort(latencies);
+        return new Result(tasks, wallNanos, percentile(latencies, 0.50), percentile(latencies, 0.99), errors.get());
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static void printHeader() {
+        System.out.printf("%-12s %11s %8s %10s %12s %9s %9s %7s%n",
+            "executor", "concurrency", "tasks", "wall ms", "tasks/s", "p50 ms", "p99 ms", "errors");
+    }
+
+    private static void printResult(String name, int concurrency, Result result) {
+        double wallMs = result.wallNanos / 1_000_000.0;
+        System.out.printf("%-12s %11d %8d %10.0f %12.1f %9.1f %9.1f %7d%n",
+            name, concurrency, result.tasks, wallMs, result.tasks / (wallMs / 1000.0),
+            result.p50Nanos / 1_000_000.0, result.p99Nanos / 1_000_000.0, result.errors);
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int split = arg.indexOf('=');
+                options.put(arg.substring(2, split), arg.substring(split + 1));
+            }
+        }
+        return options;
+    }
+
+    private static final class Result {
+        private final int tasks;
+        private final long wallNanos;
+        private final long p50Nanos;
+        private final long p99Nanos;
+        private final int errors;
+
+        private Result(int tasks, long wallNanos, long p50Nanos, long p99Nanos, int errors) {
+            this.tasks = tasks;
+            this.wallNanos = wallNanos;
+            this.p50Nanos = p50Nanos;
+            this.p99Nanos = p99Nanos;
+            this.errors = errors;
+        }
+    }
+}